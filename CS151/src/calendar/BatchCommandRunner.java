@@ -0,0 +1,357 @@
+package calendar;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * BatchCommandRunner runs calendar commands from a script instead of the
+ * interactive prompts, one command per line:
+ *
+ * <pre>
+ * create M/d/yyyy HH:mm HH:mm name       add a one-time event unless it conflicts
+ * delete M/d/yyyy name                   delete a one-time event
+ * delete-recurring name                  delete a recurring event
+ * query-day M/d/yyyy                     print the day view
+ * query-range M/d/yyyy M/d/yyyy          print every occurrence in the range
+ * render-month M/d/yyyy [count]          print the month view of count months
+ * </pre>
+ *
+ * Names run to the end of the line and may contain spaces. Blank lines and
+ * lines starting with # are skipped. A line that cannot be run prints an error
+ * with its line number, and the script goes on.
+ *
+ * The commands run as a pipeline: a reader thread reads and parses lines in
+ * chunks while the calling thread runs the chunks before it, in order. The
+ * output of all commands is collected in one buffer and written once at the
+ * end, or whenever the buffer passes FLUSH_CHARS so very long scripts do not
+ * hold all their output.
+ *
+ * Programmed by: Nathan Dinh
+ *
+ * Date: 10/17/2026
+ */
+
+class BatchCommandRunner {
+
+	/**
+	 * One parsed line of the script.
+	 */
+	private static final class Command {
+		final int line;
+		String operation;
+		LocalDate date;
+		LocalDate lastDate;
+		LocalTime startTime;
+		LocalTime endTime;
+		String name;
+		int count;
+
+		// Why the line could not be parsed, or null
+		String error;
+
+		Command(int line) {
+			this.line = line;
+		}
+	}
+
+	private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("M/d/yyyy");
+
+	// Line separator println writes
+	private static final String NEWLINE = System.lineSeparator();
+
+	// Lines parsed per chunk, and chunks the reader may run ahead
+	private static final int CHUNK_SIZE = 256;
+	private static final int CHUNKS_AHEAD = 8;
+
+	// Buffered output that is written out before the script ends
+	private static final int FLUSH_CHARS = 8 << 20;
+
+	private final MyCalendar calendar;
+
+	// Output of the commands run so far, and a renderer for the day view
+	private final StringBuilder out;
+	private final CalendarRenderer renderer;
+
+	// Commands run and commands that failed
+	private int commands;
+	private int failures;
+
+	/**
+	 * Constructor for a runner over the given calendar.
+	 *
+	 * @param calendar: the calendar the commands change and query
+	 */
+	BatchCommandRunner(MyCalendar calendar) {
+		this.calendar = calendar;
+		this.out = new StringBuilder(64 * 1024);
+		this.renderer = new CalendarRenderer();
+	}
+
+	/**
+	 * Runs every command of a script and writes their output.
+	 *
+	 * @param in:     the script
+	 * @param output: where to write the output
+	 * @throws IOException if the script cannot be read or the output written
+	 */
+	void run(BufferedReader in, Writer output) throws IOException {
+		BlockingQueue<List<Command>> chunks = new ArrayBlockingQueue<>(CHUNKS_AHEAD);
+		IOException[] readError = new IOException[1];
+
+		Thread reader = new Thread(() -> {
+			try {
+				readCommands(in, chunks);
+			} catch (IOException e) {
+				readError[0] = e;
+			} finally {
+				putChunk(chunks, Collections.emptyList());
+			}
+		}, "batch-reader");
+		reader.setDaemon(true);
+		reader.start();
+
+		try {
+			for (List<Command> chunk = chunks.take(); !chunk.isEmpty(); chunk = chunks.take()) {
+				for (Command command : chunk) {
+					execute(command);
+				}
+				if (out.length() >= FLUSH_CHARS) {
+					flush(output);
+				}
+			}
+			reader.join();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException("Interrupted while running the batch commands", e);
+		}
+		flush(output);
+		if (readError[0] != null) {
+			throw readError[0];
+		}
+	}
+
+	/**
+	 * Gets the number of commands run, including failed ones.
+	 *
+	 * @return the number of commands
+	 */
+	int getCommands() {
+		return commands;
+	}
+
+	/**
+	 * Gets the number of commands that could not be run.
+	 *
+	 * @return the number of failed commands
+	 */
+	int getFailures() {
+		return failures;
+	}
+
+	/**
+	 * Reads and parses the script into chunks of commands.
+	 */
+	private static void readCommands(BufferedReader in, BlockingQueue<List<Command>> chunks) throws IOException {
+		List<Command> chunk = new ArrayList<>(CHUNK_SIZE);
+		int lineNumber = 0;
+		String line;
+		while ((line = in.readLine()) != null) {
+			lineNumber++;
+			line = line.trim();
+			if (line.isEmpty() || line.startsWith("#")) {
+				continue;
+			}
+			chunk.add(parse(lineNumber, line));
+			if (chunk.size() == CHUNK_SIZE) {
+				putChunk(chunks, chunk);
+				chunk = new ArrayList<>(CHUNK_SIZE);
+			}
+		}
+		if (!chunk.isEmpty()) {
+			putChunk(chunks, chunk);
+		}
+	}
+
+	private static void putChunk(BlockingQueue<List<Command>> chunks, List<Command> chunk) {
+		try {
+			chunks.put(chunk);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Parses one line. Parse errors are kept in the command and reported when it
+	 * runs, so they appear in order with the other output.
+	 *
+	 * @param lineNumber: line number in the script
+	 * @param line:       the trimmed line
+	 * @return the parsed command
+	 */
+	private static Command parse(int lineNumber, String line) {
+		Command command = new Command(lineNumber);
+		String[] words = line.split("\\s+", 5);
+		command.operation = words[0].toLowerCase();
+		try {
+			switch (command.operation) {
+			case "create":
+				require(words, 5, "create M/d/yyyy HH:mm HH:mm name");
+				command.date = LocalDate.parse(words[1], DATE_FORMAT);
+				command.startTime = LocalTime.parse(words[2]);
+				command.endTime = LocalTime.parse(words[3]);
+				command.name = words[4];
+				break;
+			case "delete":
+				words = line.split("\\s+", 3);
+				require(words, 3, "delete M/d/yyyy name");
+				command.date = LocalDate.parse(words[1], DATE_FORMAT);
+				command.name = words[2];
+				break;
+			case "delete-recurring":
+				words = line.split("\\s+", 2);
+				require(words, 2, "delete-recurring name");
+				command.name = words[1];
+				break;
+			case "query-day":
+				require(words, 2, "query-day M/d/yyyy");
+				command.date = LocalDate.parse(words[1], DATE_FORMAT);
+				break;
+			case "query-range":
+				require(words, 3, "query-range M/d/yyyy M/d/yyyy");
+				command.date = LocalDate.parse(words[1], DATE_FORMAT);
+				command.lastDate = LocalDate.parse(words[2], DATE_FORMAT);
+				if (command.lastDate.isBefore(command.date)) {
+					throw new IllegalArgumentException("The last date must not be before the first date");
+				}
+				break;
+			case "render-month":
+				require(words, 2, "render-month M/d/yyyy [count]");
+				command.date = LocalDate.parse(words[1], DATE_FORMAT);
+				command.count = words.length > 2 ? Integer.parseInt(words[2]) : 1;
+				if (command.count < 1) {
+					throw new IllegalArgumentException("The month count must be at least 1");
+				}
+				break;
+			default:
+				command.error = "Unknown command: " + words[0];
+			}
+		} catch (DateTimeParseException e) {
+			command.error = "Invalid date or time: " + e.getParsedString();
+		} catch (IllegalArgumentException e) {
+			command.error = e.getMessage();
+		}
+		return command;
+	}
+
+	private static void require(String[] words, int count, String usage) {
+		if (words.length < count) {
+			throw new IllegalArgumentException("Usage: " + usage);
+		}
+	}
+
+	/**
+	 * Runs one command, with the same messages as the interactive prompts. A
+	 * command that fails prints its error and counts as failed; the script goes
+	 * on.
+	 *
+	 * @param command: the parsed command
+	 * @throws IOException if a view cannot be buffered
+	 */
+	private void execute(Command command) throws IOException {
+		commands++;
+		if (command.error != null) {
+			failures++;
+			line("Line " + command.line + ": " + command.error);
+			return;
+		}
+
+		int length = out.length();
+		try {
+			run(command);
+		} catch (RuntimeException e) {
+			// Drop any partial output of the command before the error
+			out.setLength(length);
+			failures++;
+			line("Line " + command.line + ": " + e);
+		}
+	}
+
+	/**
+	 * Runs one parsed command.
+	 */
+	private void run(Command command) throws IOException {
+		switch (command.operation) {
+		case "create":
+			create(command);
+			break;
+		case "delete":
+			if (calendar.deleteOneTimeEvent(command.date, command.name)) {
+				line("Event '" + command.name + "' deleted.");
+			} else {
+				line("Event not found.");
+			}
+			break;
+		case "delete-recurring":
+			if (calendar.deleteRecurringEventByName(command.name)) {
+				line("Recurring event '" + command.name + "' deleted.");
+			} else {
+				line("Recurring event not found.");
+			}
+			break;
+		case "query-day":
+			renderer.appendDay(command.date, calendar.getEventsOnDate(command.date)).writeTo(out);
+			break;
+		case "query-range":
+			calendar.forEachOccurrence(command.date, command.lastDate, occurrence -> {
+				TimeInterval timeInterval = occurrence.getEvent().getTimeInterval();
+				out.append(occurrence.getDate()).append(' ').append(timeInterval.getStartTime()).append(" - ")
+						.append(timeInterval.getEndTime()).append(' ').append(occurrence.getEvent().getName())
+						.append(NEWLINE);
+			});
+			break;
+		default:
+			calendar.showMonths(command.date, command.count, out);
+			break;
+		}
+	}
+
+	/**
+	 * Adds a one-time event unless it overlaps an event on its date, as
+	 * createEvent does.
+	 */
+	private void create(Command command) {
+		Event existingEvent = calendar.findConflict(command.date, command.startTime, command.endTime);
+		if (existingEvent != null) {
+			line("Time conflict detected with event: " + existingEvent.getName() + " ("
+					+ existingEvent.getTimeInterval().getStartTime() + " - "
+					+ existingEvent.getTimeInterval().getEndTime() + ")");
+			return;
+		}
+		TimeInterval timeInterval = new TimeInterval(command.date, command.startTime, command.date, command.endTime);
+		calendar.addEvent(new Event(command.name, timeInterval));
+		line("Event created successfully.");
+	}
+
+	private void line(String text) {
+		out.append(text).append(NEWLINE);
+	}
+
+	/**
+	 * Writes the buffered output in one call and empties the buffer.
+	 */
+	private void flush(Writer output) throws IOException {
+		output.append(out);
+		output.flush();
+		out.setLength(0);
+	}
+}
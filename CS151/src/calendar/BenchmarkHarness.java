@@ -0,0 +1,282 @@
+package calendar;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * BenchmarkHarness runs micro-benchmarks the way JMH does, without needing it
+ * on the class path: every benchmark gets warmup iterations that are thrown
+ * away and measurement iterations that are reported as mean and standard
+ * deviation in nanoseconds per operation. Each iteration repeats the measured
+ * operation until it has run for at least the iteration time.
+ *
+ * Results can be saved to a file and compared with a saved baseline; any
+ * benchmark that got slower by more than the threshold is reported as a
+ * regression.
+ *
+ * Programmed by: Nathan Dinh
+ *
+ * Date: 10/17/2026
+ */
+
+class BenchmarkHarness {
+
+	/**
+	 * The measured work. It returns a value that depends on the work done, so the
+	 * JIT cannot remove it.
+	 */
+	interface Operation {
+		long run() throws Exception;
+	}
+
+	/**
+	 * Command line options of a benchmark run.
+	 */
+	static class Options {
+		int[] sizes = { 1_000, 100_000, 1_000_000 };
+		double recurringShare = 0.05;
+		long seed = 42;
+		int warmupIterations = 3;
+		int measurementIterations = 5;
+		long iterationMillis = 200;
+		Pattern filter;
+		Path baseline;
+		Path save;
+		double thresholdPercent = 10;
+
+		/**
+		 * Parses the options. Recognized options:
+		 *
+		 * <pre>
+		 * --events 1000,100000,10000000   calendar sizes to run
+		 * --recurring 0.05                share of recurring events (0 to 1)
+		 * --seed 42                       random seed of the synthetic calendars
+		 * --warmup 3                      warmup iterations per benchmark
+		 * --iterations 5                  measured iterations per benchmark
+		 * --time 200                      minimum milliseconds per iteration
+		 * --only regex                    run only benchmarks whose name matches
+		 * --baseline file                 compare the results with a saved run
+		 * --save file                     save the results for a later comparison
+		 * --threshold 10                  percent slowdown that counts as regression
+		 * </pre>
+		 *
+		 * @param args: the command line arguments
+		 * @return the parsed options
+		 */
+		static Options parse(String[] args) {
+			Options options = new Options();
+			for (int i = 0; i < args.length; i++) {
+				switch (args[i]) {
+				case "--events":
+					String[] parts = valueOf(args, i).split(",");
+					options.sizes = new int[parts.length];
+					for (int p = 0; p < parts.length; p++) {
+						options.sizes[p] = Integer.parseInt(parts[p].trim().replace("_", ""));
+					}
+					break;
+				case "--recurring":
+					options.recurringShare = Double.parseDouble(valueOf(args, i));
+					break;
+				case "--seed":
+					options.seed = Long.parseLong(valueOf(args, i));
+					break;
+				case "--warmup":
+					options.warmupIterations = Integer.parseInt(valueOf(args, i));
+					break;
+				case "--iterations":
+					options.measurementIterations = Integer.parseInt(valueOf(args, i));
+					break;
+				case "--time":
+					options.iterationMillis = Long.parseLong(valueOf(args, i));
+					break;
+				case "--only":
+					options.filter = Pattern.compile(valueOf(args, i));
+					break;
+				case "--baseline":
+					options.baseline = Paths.get(valueOf(args, i));
+					break;
+				case "--save":
+					options.save = Paths.get(valueOf(args, i));
+					break;
+				case "--threshold":
+					options.thresholdPercent = Double.parseDouble(valueOf(args, i));
+					break;
+				default:
+					throw new IllegalArgumentException("Unknown option: " + args[i]);
+				}
+				i++;
+			}
+			return options;
+		}
+
+		/**
+		 * Gets the value that follows an option.
+		 *
+		 * @param args: the command line arguments
+		 * @param i:    position of the option
+		 * @return the value
+		 * @throws IllegalArgumentException if the option is the last argument
+		 */
+		private static String valueOf(String[] args, int i) {
+			if (i + 1 >= args.length) {
+				throw new IllegalArgumentException("Missing value for " + args[i]);
+			}
+			return args[i + 1];
+		}
+	}
+
+	/**
+	 * The measured time of one benchmark at one calendar size.
+	 */
+	private static final class Result {
+		final String key;
+		final double nanosPerOp;
+		final double deviation;
+
+		Result(String key, double nanosPerOp, double deviation) {
+			this.key = key;
+			this.nanosPerOp = nanosPerOp;
+			this.deviation = deviation;
+		}
+	}
+
+	private final Options options;
+	private final List<Result> results;
+
+	// Results are written here so the JIT cannot drop the measured work
+	static volatile long blackhole;
+
+	/**
+	 * Constructor for a harness with the given options.
+	 *
+	 * @param options: the run options
+	 */
+	BenchmarkHarness(Options options) {
+		this.options = options;
+		this.results = new ArrayList<>();
+		System.out.printf("%-36s %10s %14s %12s%n", "Benchmark", "Events", "ns/op", "+/-");
+	}
+
+	/**
+	 * Checks if a benchmark is selected by the --only filter.
+	 *
+	 * @param name: the benchmark name
+	 * @return true if the benchmark should run
+	 */
+	boolean isSelected(String name) {
+		return options.filter == null || options.filter.matcher(name).find();
+	}
+
+	/**
+	 * Runs and reports one benchmark.
+	 *
+	 * @param name:             the benchmark name
+	 * @param events:           calendar size the benchmark runs on
+	 * @param opsPerInvocation: operations done by one call of the operation
+	 * @param operation:        the measured work
+	 */
+	void run(String name, int events, long opsPerInvocation, Operation operation) {
+		if (!isSelected(name)) {
+			return;
+		}
+		try {
+			for (int i = 0; i < options.warmupIterations; i++) {
+				iteration(opsPerInvocation, operation);
+			}
+			double[] samples = new double[options.measurementIterations];
+			for (int i = 0; i < samples.length; i++) {
+				samples[i] = iteration(opsPerInvocation, operation);
+			}
+
+			double mean = 0;
+			for (double sample : samples) {
+				mean += sample;
+			}
+			mean /= samples.length;
+			double variance = 0;
+			for (double sample : samples) {
+				variance += (sample - mean) * (sample - mean);
+			}
+			double deviation = samples.length > 1 ? Math.sqrt(variance / (samples.length - 1)) : 0;
+
+			results.add(new Result(name + "@" + events, mean, deviation));
+			System.out.printf(Locale.US, "%-36s %10d %14.2f %12.2f%n", name, events, mean, deviation);
+		} catch (Exception e) {
+			System.out.println(name + " failed: " + e);
+		}
+	}
+
+	/**
+	 * Repeats the operation for at least the iteration time.
+	 *
+	 * @return the time per operation in nanoseconds
+	 */
+	private double iteration(long opsPerInvocation, Operation operation) throws Exception {
+		long minNanos = options.iterationMillis * 1_000_000;
+		long invocations = 0;
+		long sink = 0;
+		long start = System.nanoTime();
+		long elapsed;
+		do {
+			sink += operation.run();
+			invocations++;
+			elapsed = System.nanoTime() - start;
+		} while (elapsed < minNanos);
+		blackhole = sink;
+		return (double) elapsed / (invocations * opsPerInvocation);
+	}
+
+	/**
+	 * Saves the results and compares them with the baseline, if those options were
+	 * given.
+	 *
+	 * @return the number of regressions found
+	 * @throws IOException if the baseline cannot be read or the results saved
+	 */
+	int finish() throws IOException {
+		if (options.save != null) {
+			try (BufferedWriter writer = Files.newBufferedWriter(options.save)) {
+				for (Result result : results) {
+					writer.write(result.key + "\t" + result.nanosPerOp);
+					writer.newLine();
+				}
+			}
+		}
+		if (options.baseline == null) {
+			return 0;
+		}
+
+		Map<String, Double> baseline = new HashMap<>();
+		for (String line : Files.readAllLines(options.baseline)) {
+			String[] parts = line.split("\t");
+			if (parts.length == 2) {
+				baseline.put(parts[0], Double.parseDouble(parts[1]));
+			}
+		}
+
+		int regressions = 0;
+		System.out.println();
+		for (Result result : results) {
+			Double before = baseline.get(result.key);
+			if (before == null) {
+				continue;
+			}
+			double change = (result.nanosPerOp - before) / before * 100;
+			boolean regressed = change > options.thresholdPercent;
+			if (regressed) {
+				regressions++;
+			}
+			System.out.printf(Locale.US, "%-48s %+8.1f%%%s%n", result.key, change, regressed ? "  REGRESSION" : "");
+		}
+		return regressions;
+	}
+}
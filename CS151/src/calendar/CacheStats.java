@@ -0,0 +1,74 @@
+package calendar;
+
+/**
+ * CacheStats is a snapshot of a cache's counters: how many lookups it answered
+ * from memory, how many it had to compute, and how many entries it dropped to
+ * stay within its capacity. Entries dropped because an event changed are not
+ * counted as evictions.
+ *
+ * Programmed by: Nathan Dinh
+ *
+ * Date: 10/17/2026
+ */
+
+public final class CacheStats {
+
+	private final long hits;
+	private final long misses;
+	private final long evictions;
+	private final int size;
+	private final int capacity;
+
+	/**
+	 * Constructor for a snapshot of the given counters.
+	 *
+	 * @param hits:      lookups answered from the cache
+	 * @param misses:    lookups that had to be computed
+	 * @param evictions: entries dropped to make room
+	 * @param size:      entries in the cache
+	 * @param capacity:  most entries the cache keeps
+	 */
+	CacheStats(long hits, long misses, long evictions, int size, int capacity) {
+		this.hits = hits;
+		this.misses = misses;
+		this.evictions = evictions;
+		this.size = size;
+		this.capacity = capacity;
+	}
+
+	public long getHits() {
+		return hits;
+	}
+
+	public long getMisses() {
+		return misses;
+	}
+
+	public long getEvictions() {
+		return evictions;
+	}
+
+	public int getSize() {
+		return size;
+	}
+
+	public int getCapacity() {
+		return capacity;
+	}
+
+	/**
+	 * Gets the share of lookups answered from the cache.
+	 *
+	 * @return the hit rate between 0 and 1, or 0 before the first lookup
+	 */
+	public double getHitRate() {
+		long lookups = hits + misses;
+		return lookups == 0 ? 0 : (double) hits / lookups;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("%d hits, %d misses (%.1f%% hit rate), %d evictions, %d/%d entries", hits, misses,
+				getHitRate() * 100, evictions, size, capacity);
+	}
+}
@@ -0,0 +1,574 @@
+package calendar;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * CalendarBenchmark times the calendar's hot paths on synthetic calendars with
+ * BenchmarkHarness: loading, day lookups, month rendering, overlap and
+ * occurrence checks, saving, snapshots, concurrent reads and conflict checks.
+ * Each benchmark runs once per calendar size.
+ *
+ * Example: java calendar.CalendarBenchmark --events 1000,1000000,10000000
+ * --recurring 0.2 --save before.txt, and after a change the same with
+ * --baseline before.txt to list the regressions. The exit code is 1 if any
+ * benchmark regressed. See BenchmarkHarness.Options for all options.
+ *
+ * Programmed by: Nathan Dinh
+ *
+ * Date: 10/17/2026
+ */
+
+public class CalendarBenchmark {
+
+	// First day of the synthetic calendars
+	private static final LocalDate FIRST_DAY = LocalDate.of(2024, 1, 1);
+
+	// Number of days the synthetic events are spread over
+	private static final int SPAN_DAYS = 3 * 365;
+
+	/**
+	 * Starting point of the benchmark.
+	 *
+	 * @param args options, see BenchmarkHarness.Options.parse
+	 */
+	public static void main(String[] args) {
+		BenchmarkHarness.Options options = BenchmarkHarness.Options.parse(args);
+		BenchmarkHarness harness = new BenchmarkHarness(options);
+
+		try {
+			for (int size : options.sizes) {
+				List<Event> events = generateEvents(size, options.recurringShare, options.seed);
+				MyCalendar calendar = new MyCalendar();
+				for (Event event : events) {
+					calendar.addEvent(event);
+				}
+
+				benchmarkDayLookup(harness, calendar, events);
+				benchmarkShowMonth(harness, calendar);
+				benchmarkOverlaps(harness, events);
+				benchmarkOccursOn(harness, events);
+				benchmarkFiles(harness, calendar, events);
+				benchmarkConcurrentReads(harness, events);
+				benchmarkConflicts(harness, calendar);
+				benchmarkFreeSlots(harness, calendar);
+				benchmarkPackedStore(harness, events);
+			}
+
+			if (harness.finish() > 0) {
+				System.exit(1);
+			}
+		} catch (IOException e) {
+			System.out.println("An error occurred while running the benchmarks.");
+			e.printStackTrace();
+		}
+	}
+
+	/**
+	 * Times getEventsOnDate when every date is in the day view cache, when none
+	 * is and it has to ask the index, and, for comparison, as a full scan of the
+	 * event list.
+	 *
+	 * @param harness:  harness to run in
+	 * @param calendar: calendar holding the events
+	 * @param events:   the same events as a plain list
+	 */
+	private static void benchmarkDayLookup(BenchmarkHarness harness, MyCalendar calendar, List<Event> events) {
+		LocalDate[] dates = randomDates(1024, 7);
+		int size = events.size();
+
+		// The dates fit in the cache, so after the warmup every lookup is a hit
+		harness.run("getEventsOnDate (cache hit)", size, dates.length, () -> {
+			long sink = 0;
+			for (LocalDate date : dates) {
+				sink += calendar.getEventsOnDate(date).size();
+			}
+			return sink;
+		});
+
+		// Each date once, after clearing the cache, so every lookup is a miss
+		LocalDate[] missDates = Arrays.stream(dates).distinct().toArray(LocalDate[]::new);
+		harness.run("getEventsOnDate (cache miss)", size, missDates.length, () -> {
+			calendar.clearDayViewCache();
+			long sink = 0;
+			for (LocalDate date : missDates) {
+				sink += calendar.getEventsOnDate(date).size();
+			}
+			return sink;
+		});
+
+		// A few dates are enough for the scan, it touches every event per query
+		LocalDate[] scanDates = randomDates(8, 7);
+		harness.run("getEventsOnDate (scan)", size, scanDates.length, () -> {
+			long sink = 0;
+			for (LocalDate date : scanDates) {
+				sink += scanEventsOnDate(events, date).size();
+			}
+			return sink;
+		});
+	}
+
+	/**
+	 * Times rendering a year of the month view with the output thrown away, and
+	 * building the occupancy bitmaps from the index month by month and for the
+	 * whole range in one pass.
+	 *
+	 * @param harness:  harness to run in
+	 * @param calendar: calendar holding the events
+	 */
+	private static void benchmarkShowMonth(BenchmarkHarness harness, MyCalendar calendar) {
+		int size = calendar.getStore().size();
+		LocalDate first = FIRST_DAY.plusMonths(12);
+
+		harness.run("showMonth", size, 12, () -> {
+			PrintStream out = System.out;
+			System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+			try {
+				for (int i = 0; i < 12; i++) {
+					calendar.showMonth(first.plusMonths(i));
+				}
+			} finally {
+				System.setOut(out);
+			}
+			return 12;
+		});
+
+		YearMonth firstMonth = YearMonth.from(FIRST_DAY);
+		int months = SPAN_DAYS / 31;
+		harness.run("month occupancy (cold)", size, months, () -> {
+			MonthOccupancyCache cache = new MonthOccupancyCache();
+			long sink = 0;
+			for (int i = 0; i < months; i++) {
+				sink += cache.get(firstMonth.plusMonths(i), calendar.getStore());
+			}
+			return sink;
+		});
+
+		harness.run("month occupancy (cold, one pass)", size, months, () -> {
+			int[] bits = new MonthOccupancyCache().get(firstMonth, months, calendar.getStore());
+			return bits[months - 1];
+		});
+	}
+
+	/**
+	 * Times TimeInterval.overlaps on pairs of neighbouring events.
+	 *
+	 * @param harness: harness to run in
+	 * @param events:  events whose intervals are compared
+	 */
+	private static void benchmarkOverlaps(BenchmarkHarness harness, List<Event> events) {
+		int pairs = Math.min(events.size() - 1, 1 << 16);
+		TimeInterval[] intervals = new TimeInterval[pairs + 1];
+		for (int i = 0; i <= pairs; i++) {
+			intervals[i] = events.get(i).getTimeInterval();
+		}
+
+		harness.run("TimeInterval.overlaps", events.size(), pairs, () -> {
+			long sink = 0;
+			for (int i = 0; i < pairs; i++) {
+				if (intervals[i].overlaps(intervals[i + 1])) {
+					sink++;
+				}
+			}
+			return sink;
+		});
+	}
+
+	/**
+	 * Times Event.occursOn with the packed day mask and, for comparison, the old
+	 * loop over the recurring days array.
+	 *
+	 * @param harness: harness to run in
+	 * @param events:  events to probe
+	 */
+	private static void benchmarkOccursOn(BenchmarkHarness harness, List<Event> events) {
+		int count = Math.min(events.size(), 1 << 16);
+		Event[] probed = events.subList(0, count).toArray(new Event[0]);
+		LocalDate[] dates = randomDates(16, 11);
+		long[] days = new long[dates.length];
+		for (int i = 0; i < dates.length; i++) {
+			days[i] = dates[i].toEpochDay();
+		}
+		long probes = (long) count * dates.length;
+
+		harness.run("Event.occursOn", events.size(), probes, () -> {
+			long sink = 0;
+			for (long day : days) {
+				for (Event event : probed) {
+					if (event.occursOn(day)) {
+						sink++;
+					}
+				}
+			}
+			return sink;
+		});
+
+		harness.run("Event.occursOn (day array)", events.size(), probes, () -> {
+			long sink = 0;
+			for (LocalDate date : dates) {
+				for (Event event : probed) {
+					if (occursOnByDayArray(event, date)) {
+						sink++;
+					}
+				}
+			}
+			return sink;
+		});
+	}
+
+	/**
+	 * Checks if an event occurs on a date by comparing dates and looping over its
+	 * recurring days, the way Event.occursOn did before the day mask.
+	 *
+	 * @param event: the event to check
+	 * @param date:  the date to check
+	 * @return true if the event occurs on the date, false otherwise
+	 */
+	static boolean occursOnByDayArray(Event event, LocalDate date) {
+		if (!event.isRecurring()) {
+			return event.getTimeInterval().getStartDate().equals(date);
+		}
+		return !date.isBefore(event.getStartDate()) && !date.isAfter(event.getEndDate())
+				&& event.hasRecurringDay(date.getDayOfWeek());
+	}
+
+	/**
+	 * Times loading the text format, saving it with saveEventsToFile, and writing
+	 * and reading a binary snapshot. One operation is one event.
+	 *
+	 * @param harness:  harness to run in
+	 * @param calendar: calendar holding the events
+	 * @param events:   the same events as a plain list
+	 */
+	private static void benchmarkFiles(BenchmarkHarness harness, MyCalendar calendar, List<Event> events) {
+		int size = events.size();
+		try {
+			Path text = Files.createTempFile("calendar-bench", ".txt");
+			Path saved = Files.createTempFile("calendar-bench", ".out");
+			Path snapshot = Files.createTempFile("calendar-bench", ".snapshot");
+			try {
+				writeTextFile(events, text);
+
+				harness.run("loadEvents", size, size, () -> {
+					MyCalendar loaded = new MyCalendar();
+					loaded.loadEvents(text.toString());
+					return loaded.getStore().size();
+				});
+				harness.run("loadEvents (parse only)", size, size, () -> new EventFileReader().read(text, event -> {
+				}));
+				harness.run("loadEventsParallel", size, size, () -> {
+					MyCalendar loaded = new MyCalendar();
+					loaded.loadEventsParallel(text.toString(), ForkJoinPool.commonPool());
+					return loaded.getStore().size();
+				});
+				harness.run("saveEventsToFile", size, size, () -> {
+					calendar.saveEventsToFile(saved.toString());
+					return Files.size(saved);
+				});
+				harness.run("saveSnapshot", size, size, () -> {
+					calendar.saveSnapshot(snapshot.toString());
+					return Files.size(snapshot);
+				});
+
+				calendar.saveSnapshot(snapshot.toString());
+				harness.run("loadSnapshot", size, size, () -> {
+					MyCalendar loaded = new MyCalendar();
+					loaded.loadSnapshot(snapshot.toString());
+					return loaded.getStore().size();
+				});
+			} finally {
+				Files.deleteIfExists(text);
+				Files.deleteIfExists(saved);
+				Files.deleteIfExists(snapshot);
+			}
+		} catch (IOException e) {
+			System.out.println("An error occurred while creating the benchmark files.");
+			e.printStackTrace();
+		}
+	}
+
+	/**
+	 * Times getEventsOnDate on a shared ConcurrentCalendar with 1, 2, 4 and 8
+	 * reader threads while one writer removes and adds an event every millisecond.
+	 * One operation is one read by any thread, so more readers should mean less
+	 * time per operation.
+	 *
+	 * @param harness: harness to run in
+	 * @param events:  events to fill the calendar with
+	 */
+	private static void benchmarkConcurrentReads(BenchmarkHarness harness, List<Event> events) {
+		if (!harness.isSelected("concurrent reads")) {
+			return;
+		}
+		ConcurrentCalendar calendar = new ConcurrentCalendar();
+		for (Event event : events) {
+			calendar.addEvent(event);
+		}
+		LocalDate[] dates = randomDates(1024, 13);
+		int readsPerThread = 4096;
+
+		for (int readers = 1; readers <= 8; readers *= 2) {
+			int threads = readers;
+			harness.run("concurrent reads (" + readers + " threads)", events.size(),
+					(long) readers * readsPerThread, () -> {
+						List<Thread> started = new ArrayList<>();
+						long[] sinks = new long[threads];
+						for (int r = 0; r < threads; r++) {
+							int reader = r;
+							Thread thread = new Thread(() -> {
+								long sink = 0;
+								for (int i = 0; i < readsPerThread; i++) {
+									sink += calendar.getEventsOnDate(dates[(reader * 131 + i) & 1023]).size();
+								}
+								sinks[reader] = sink;
+							});
+							thread.start();
+							started.add(thread);
+						}
+
+						// Write every millisecond until the readers are done
+						Event extra = events.get(0);
+						long sink = 0;
+						for (int r = 0; r < threads; r++) {
+							Thread thread = started.get(r);
+							while (thread.isAlive()) {
+								calendar.removeEvent(extra);
+								calendar.addEvent(extra);
+								thread.join(1);
+							}
+							sink += sinks[r];
+						}
+						return sink;
+					});
+		}
+	}
+
+	/**
+	 * Times checking a batch of new events with findConflicts, one at a time with
+	 * the cached day bitsets the way createEvent does, and one at a time by
+	 * comparing every event of the day. One operation is one new event.
+	 *
+	 * @param harness:  harness to run in
+	 * @param calendar: calendar to check against
+	 */
+	private static void benchmarkConflicts(BenchmarkHarness harness, MyCalendar calendar) {
+		List<Event> batch = generateEvents(2_000, 0, 99);
+		int size = calendar.getStore().size();
+
+		harness.run("findConflicts", size, batch.size(), () -> calendar.findConflicts(batch).getRejected().size());
+
+		harness.run("findConflict (day bitset)", size, batch.size(), () -> {
+			long rejected = 0;
+			for (Event candidate : batch) {
+				TimeInterval timeInterval = candidate.getTimeInterval();
+				if (calendar.findConflict(timeInterval.getStartDate(), timeInterval.getStartTime(),
+						timeInterval.getEndTime()) != null) {
+					rejected++;
+				}
+			}
+			return rejected;
+		});
+
+		harness.run("conflicts (one at a time)", size, batch.size(), () -> {
+			long rejected = 0;
+			for (Event candidate : batch) {
+				for (Event existing : calendar.getEventsOnDate(candidate.getTimeInterval().getStartDate())) {
+					if (existing.getTimeInterval().overlaps(candidate.getTimeInterval())) {
+						rejected++;
+						break;
+					}
+				}
+			}
+			return rejected;
+		});
+	}
+
+	/**
+	 * Times finding every 45 minute gap on weekdays between 9:00 and 17:00 over
+	 * three months, and the first such gap. One operation is one search.
+	 *
+	 * @param harness:  harness to run in
+	 * @param calendar: calendar to search
+	 */
+	private static void benchmarkFreeSlots(BenchmarkHarness harness, MyCalendar calendar) {
+		int size = calendar.getStore().size();
+		LocalDate from = FIRST_DAY.plusMonths(12);
+		LocalDate to = from.plusMonths(3);
+		LocalTime windowStart = LocalTime.of(9, 0);
+		LocalTime windowEnd = LocalTime.of(17, 0);
+		Duration length = Duration.ofMinutes(45);
+		Set<DayOfWeek> weekdays = EnumSet.range(DayOfWeek.MONDAY, DayOfWeek.FRIDAY);
+
+		harness.run("findFreeSlots (3 months)", size, 1, () -> calendar
+				.findFreeSlots(from, to, windowStart, windowEnd, length, weekdays, Integer.MAX_VALUE).size());
+		harness.run("findFirstFreeSlot", size, 1, () -> {
+			TimeInterval slot = calendar.findFirstFreeSlot(from, to, windowStart, windowEnd, length, weekdays);
+			return slot == null ? 0 : slot.getStartDate().toEpochDay();
+		});
+	}
+
+	/**
+	 * Times filling a packed calendar, and the day lookups and free slot search
+	 * on it, to compare with the same benchmarks on Event objects above. Packed
+	 * lookups build new Event copies, which the object store does not.
+	 *
+	 * @param harness: harness to run in
+	 * @param events:  events to fill the calendar with
+	 */
+	private static void benchmarkPackedStore(BenchmarkHarness harness, List<Event> events) {
+		if (!harness.isSelected("packed")) {
+			return;
+		}
+		int size = events.size();
+		harness.run("addEvent (packed)", size, size, () -> {
+			MyCalendar filled = new MyCalendar(true);
+			for (Event event : events) {
+				filled.addEvent(event);
+			}
+			return filled.getStore().size();
+		});
+
+		MyCalendar calendar = new MyCalendar(true);
+		for (Event event : events) {
+			calendar.addEvent(event);
+		}
+		LocalDate[] dates = randomDates(1024, 7);
+		harness.run("getEventsOnDate (packed)", size, dates.length, () -> {
+			long sink = 0;
+			for (LocalDate date : dates) {
+				sink += calendar.getEventsOnDate(date).size();
+			}
+			return sink;
+		});
+
+		LocalDate from = FIRST_DAY.plusMonths(12);
+		harness.run("findFreeSlots (3 months, packed)", size, 1,
+				() -> calendar.findFreeSlots(from, from.plusMonths(3), LocalTime.of(9, 0), LocalTime.of(17, 0),
+						Duration.ofMinutes(45), EnumSet.range(DayOfWeek.MONDAY, DayOfWeek.FRIDAY), Integer.MAX_VALUE)
+						.size());
+	}
+
+	/**
+	 * Writes events in the two-lines-per-event format loadEvents reads.
+	 *
+	 * @param events: events to write
+	 * @param file:   file to write to
+	 * @throws IOException if the file cannot be written
+	 */
+	static void writeTextFile(List<Event> events, Path file) throws IOException {
+		try (BufferedWriter writer = Files.newBufferedWriter(file)) {
+			for (Event event : events) {
+				TimeInterval timeInterval = event.getTimeInterval();
+				writer.write(event.getName());
+				writer.newLine();
+				if (event.isRecurring()) {
+					for (DayOfWeek day : event.getRecurringDays()) {
+						writer.write("MTWRFSU".charAt(day.getValue() - 1));
+					}
+					writer.write(" " + formatTime(timeInterval.getStartTime()) + " "
+							+ formatTime(timeInterval.getEndTime()) + " " + formatDate(event.getStartDate()) + " "
+							+ formatDate(event.getEndDate()));
+				} else {
+					writer.write(formatDate(timeInterval.getStartDate()) + " " + formatTime(timeInterval.getStartTime())
+							+ " " + formatTime(timeInterval.getEndTime()));
+				}
+				writer.newLine();
+			}
+		}
+	}
+
+	private static String formatTime(LocalTime time) {
+		return time.getHour() + ":" + (time.getMinute() < 10 ? "0" : "") + time.getMinute();
+	}
+
+	private static String formatDate(LocalDate date) {
+		return date.getMonthValue() + "/" + date.getDayOfMonth() + "/" + (date.getYear() % 100);
+	}
+
+	/**
+	 * Finds the events on a date by checking every event, the way the calendar
+	 * did before it had an index.
+	 *
+	 * @param events: all events
+	 * @param date:   date to look up
+	 * @return the events that occur on the date
+	 */
+	static List<Event> scanEventsOnDate(List<Event> events, LocalDate date) {
+		List<Event> eventsOnDate = new ArrayList<>();
+		for (Event event : events) {
+			if (occursOnByDayArray(event, date)) {
+				eventsOnDate.add(event);
+			}
+		}
+		return eventsOnDate;
+	}
+
+	/**
+	 * Builds a list of synthetic events spread over three years.
+	 *
+	 * @param count:         number of events to build
+	 * @param recurringShare: fraction of events that are recurring (0 to 1)
+	 * @param seed:          random seed, so runs are repeatable
+	 * @return the generated events
+	 */
+	static List<Event> generateEvents(int count, double recurringShare, long seed) {
+		Random random = new Random(seed);
+		DayOfWeek[] week = DayOfWeek.values();
+		List<Event> events = new ArrayList<>(count);
+
+		for (int i = 0; i < count; i++) {
+			LocalDate date = FIRST_DAY.plusDays(random.nextInt(SPAN_DAYS));
+			int startMinute = 6 * 60 + random.nextInt(14 * 60);
+			LocalTime startTime = LocalTime.of(startMinute / 60, startMinute % 60);
+			LocalTime endTime = startTime.plusMinutes(15 + random.nextInt(120));
+			if (endTime.isBefore(startTime)) {
+				endTime = LocalTime.of(23, 59);
+			}
+
+			if (random.nextDouble() < recurringShare) {
+				LocalDate endDate = date.plusDays(7 + random.nextInt(180));
+				// Sunday-only events are left out: the file format reads a leading 'U' as a
+				// date, so they would not load back
+				DayOfWeek[] days = { week[random.nextInt(6)] };
+				TimeInterval timeInterval = new TimeInterval(date, startTime, endDate, endTime);
+				events.add(new Event("Recurring " + i, timeInterval, days, date, endDate));
+			} else {
+				TimeInterval timeInterval = new TimeInterval(date, startTime, date, endTime);
+				events.add(new Event("Event " + i, timeInterval));
+			}
+		}
+		return events;
+	}
+
+	/**
+	 * Picks random dates inside the synthetic calendar range.
+	 *
+	 * @param count: number of dates
+	 * @param seed:  random seed
+	 * @return the dates
+	 */
+	static LocalDate[] randomDates(int count, long seed) {
+		Random random = new Random(seed);
+		LocalDate[] dates = new LocalDate[count];
+		for (int i = 0; i < count; i++) {
+			dates[i] = FIRST_DAY.plusDays(random.nextInt(SPAN_DAYS));
+		}
+		return dates;
+	}
+}
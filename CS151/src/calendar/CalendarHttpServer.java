@@ -0,0 +1,409 @@
+package calendar;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.YearMonth;
+import java.time.format.TextStyle;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * CalendarHttpServer answers calendar queries over HTTP on localhost, for
+ * tools that cannot use the console UI. It runs on the JDK's built-in HTTP
+ * server and handles each request on its own virtual thread, so thousands of
+ * waiting requests cost little memory and none of them holds a platform
+ * thread while it waits for the calendar's read lock.
+ *
+ * All responses are JSON. Dates are yyyy-MM-dd and times HH:mm.
+ *
+ * <pre>
+ * GET /day?date=2024-03-04
+ *     the day view: every event on the date
+ * GET /occurrences?from=2024-03-01&amp;to=2024-03-31[&amp;limit=1000]
+ *     every occurrence in the range in chronological order
+ * GET /free-slots?from=..&amp;to=..[&amp;windowStart=09:00&amp;windowEnd=17:00
+ *                 &amp;minutes=30&amp;days=MON,TUE&amp;limit=100]
+ *     free gaps between events, as MyCalendar.findFreeSlots
+ * GET /occupancy?month=2024-03[&amp;count=1]
+ *     the busy days of consecutive months, as the month view marks them
+ * </pre>
+ *
+ * Ranges are limited to MAX_RANGE_DAYS days and MAX_MONTHS months so one
+ * request cannot hold the read lock for long. Bad parameters get status 400
+ * with {"error": "..."}.
+ *
+ * The calendar is shared by all request threads, so it should be a
+ * ConcurrentCalendar if anything changes it while the server runs.
+ *
+ * Programmed by: Nathan Dinh
+ *
+ * Date: 10/17/2026
+ */
+
+public class CalendarHttpServer {
+
+	// Largest date range and number of months one request may ask for
+	static final int MAX_RANGE_DAYS = 366;
+	static final int MAX_MONTHS = 24;
+
+	// Connections waiting to be accepted
+	private static final int BACKLOG = 1024;
+
+	static {
+		// The JDK server writes the headers and the body separately, and without
+		// TCP_NODELAY the body waits for the client's delayed ACK, about 40 ms
+		if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+			System.setProperty("sun.net.httpserver.nodelay", "true");
+		}
+	}
+
+	private final MyCalendar calendar;
+	private final HttpServer server;
+	private final ExecutorService executor;
+
+	/**
+	 * Constructor for a server over the given calendar, bound to a port on the
+	 * loopback address. The server does not answer until start is called.
+	 *
+	 * @param calendar: the calendar to query
+	 * @param port:     the port to listen on, or 0 for any free port
+	 * @throws IOException if the port cannot be bound
+	 */
+	public CalendarHttpServer(MyCalendar calendar, int port) throws IOException {
+		this.calendar = calendar;
+		this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), BACKLOG);
+		this.executor = Executors.newVirtualThreadPerTaskExecutor();
+		server.setExecutor(executor);
+		server.createContext("/day", exchange -> handle(exchange, "/day", this::day));
+		server.createContext("/occurrences", exchange -> handle(exchange, "/occurrences", this::occurrences));
+		server.createContext("/free-slots", exchange -> handle(exchange, "/free-slots", this::freeSlots));
+		server.createContext("/occupancy", exchange -> handle(exchange, "/occupancy", this::occupancy));
+	}
+
+	/**
+	 * Starts answering requests.
+	 */
+	public void start() {
+		server.start();
+	}
+
+	/**
+	 * Stops accepting requests, waits for the ones in progress to finish, and
+	 * releases the port.
+	 *
+	 * @param delaySeconds: longest time to wait for requests in progress
+	 */
+	public void stop(int delaySeconds) {
+		server.stop(delaySeconds);
+		executor.close();
+	}
+
+	/**
+	 * Gets the port the server listens on, useful when it was created with port 0.
+	 *
+	 * @return the port
+	 */
+	public int getPort() {
+		return server.getAddress().getPort();
+	}
+
+	/**
+	 * Starting point of a standalone server. Options: --events FILE to load,
+	 * --port N (default 8080).
+	 *
+	 * @param args command line arguments
+	 */
+	public static void main(String[] args) {
+		String eventsFile = null;
+		int port = 8080;
+		for (int i = 0; i < args.length - 1; i += 2) {
+			if (args[i].equals("--events")) {
+				eventsFile = args[i + 1];
+			} else if (args[i].equals("--port")) {
+				port = Integer.parseInt(args[i + 1]);
+			}
+		}
+
+		ConcurrentCalendar calendar = new ConcurrentCalendar();
+		if (eventsFile != null) {
+			calendar.loadEvents(eventsFile);
+		}
+		try {
+			CalendarHttpServer server = new CalendarHttpServer(calendar, port);
+			server.start();
+			System.out.println("Serving the calendar on http://localhost:" + server.getPort() + "/");
+		} catch (IOException e) {
+			System.out.println("An error occurred while starting the server.");
+			e.printStackTrace();
+		}
+	}
+
+	/**
+	 * A query that turns request parameters into a JSON body.
+	 */
+	private interface Query {
+		void answer(Map<String, String> parameters, StringBuilder json);
+	}
+
+	/**
+	 * Runs a query for an exchange and sends its answer, or the error status.
+	 */
+	private void handle(HttpExchange exchange, String path, Query query) throws IOException {
+		int status = 200;
+		StringBuilder json = new StringBuilder(256);
+		try {
+			if (!exchange.getRequestURI().getPath().equals(path)) {
+				status = 404;
+				error(json, "Not found: " + exchange.getRequestURI().getPath());
+			} else if (!exchange.getRequestMethod().equals("GET")) {
+				status = 405;
+				error(json, "Only GET is supported");
+			} else {
+				query.answer(parameters(exchange.getRequestURI().getRawQuery()), json);
+			}
+		} catch (DateTimeException | IllegalArgumentException e) {
+			status = 400;
+			json.setLength(0);
+			error(json, e.getMessage());
+		} catch (RuntimeException e) {
+			status = 500;
+			json.setLength(0);
+			error(json, "An error occurred while answering the query.");
+			e.printStackTrace();
+		}
+
+		byte[] body = json.toString().getBytes(StandardCharsets.UTF_8);
+		exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+		exchange.sendResponseHeaders(status, body.length);
+		try (OutputStream out = exchange.getResponseBody()) {
+			out.write(body);
+		}
+	}
+
+	/**
+	 * Answers /day: {"date": ..., "events": [...]}.
+	 */
+	private void day(Map<String, String> parameters, StringBuilder json) {
+		LocalDate date = LocalDate.parse(required(parameters, "date"));
+		List<Event> events = calendar.getEventsOnDate(date);
+		json.append("{\"date\":\"").append(date).append("\",\"events\":[");
+		for (int i = 0; i < events.size(); i++) {
+			if (i > 0) {
+				json.append(',');
+			}
+			appendEvent(json, events.get(i));
+		}
+		json.append("]}");
+	}
+
+	/**
+	 * Answers /occurrences: {"from": ..., "to": ..., "occurrences": [...],
+	 * "truncated": ...}.
+	 */
+	private void occurrences(Map<String, String> parameters, StringBuilder json) {
+		LocalDate from = LocalDate.parse(required(parameters, "from"));
+		LocalDate to = LocalDate.parse(required(parameters, "to"));
+		checkRange(from, to);
+		int limit = intParameter(parameters, "limit", 1000);
+
+		json.append("{\"from\":\"").append(from).append("\",\"to\":\"").append(to).append("\",\"occurrences\":[");
+		// One more than the limit tells whether the range holds more
+		int max = limit == Integer.MAX_VALUE ? limit : limit + 1;
+		List<Occurrence> occurrences = calendar.getOccurrences(from, to, max);
+		int count = Math.min(occurrences.size(), limit);
+		for (int i = 0; i < count; i++) {
+			if (i > 0) {
+				json.append(',');
+			}
+			Occurrence occurrence = occurrences.get(i);
+			TimeInterval timeInterval = occurrence.getEvent().getTimeInterval();
+			json.append("{\"date\":\"").append(occurrence.getDate()).append("\",\"name\":");
+			appendString(json, occurrence.getEvent().getName());
+			json.append(",\"start\":\"").append(timeInterval.getStartTime()).append("\",\"end\":\"")
+					.append(timeInterval.getEndTime()).append("\",\"recurring\":")
+					.append(occurrence.getEvent().isRecurring()).append('}');
+		}
+		json.append("],\"truncated\":").append(occurrences.size() > limit).append('}');
+	}
+
+	/**
+	 * Answers /free-slots: {"slots": [{"date", "start", "end"}, ...]}.
+	 */
+	private void freeSlots(Map<String, String> parameters, StringBuilder json) {
+		LocalDate from = LocalDate.parse(required(parameters, "from"));
+		LocalDate to = LocalDate.parse(required(parameters, "to"));
+		checkRange(from, to);
+		LocalTime windowStart = LocalTime.parse(parameters.getOrDefault("windowStart", "00:00"));
+		LocalTime windowEnd = LocalTime.parse(parameters.getOrDefault("windowEnd", "23:59"));
+		Duration length = Duration.ofMinutes(intParameter(parameters, "minutes", 30));
+		int limit = intParameter(parameters, "limit", 100);
+
+		Set<DayOfWeek> days = EnumSet.allOf(DayOfWeek.class);
+		if (parameters.containsKey("days")) {
+			days.clear();
+			for (String day : parameters.get("days").split(",")) {
+				days.add(dayOf(day.trim()));
+			}
+		}
+
+		List<TimeInterval> slots = calendar.findFreeSlots(from, to, windowStart, windowEnd, length, days, limit);
+		json.append("{\"slots\":[");
+		for (int i = 0; i < slots.size(); i++) {
+			TimeInterval slot = slots.get(i);
+			if (i > 0) {
+				json.append(',');
+			}
+			json.append("{\"date\":\"").append(slot.getStartDate()).append("\",\"start\":\"")
+					.append(slot.getStartTime()).append("\",\"end\":\"").append(slot.getEndTime()).append("\"}");
+		}
+		json.append("]}");
+	}
+
+	/**
+	 * Answers /occupancy: {"months": [{"month": ..., "busyDays": [...]}, ...]}.
+	 */
+	private void occupancy(Map<String, String> parameters, StringBuilder json) {
+		YearMonth first = YearMonth.parse(required(parameters, "month"));
+		int count = intParameter(parameters, "count", 1);
+		if (count > MAX_MONTHS) {
+			throw new IllegalArgumentException("At most " + MAX_MONTHS + " months can be asked for");
+		}
+
+		int[] busyDays = calendar.getMonthOccupancy(first.atDay(1), count);
+		json.append("{\"months\":[");
+		for (int i = 0; i < count; i++) {
+			if (i > 0) {
+				json.append(',');
+			}
+			json.append("{\"month\":\"").append(first.plusMonths(i)).append("\",\"busyDays\":[");
+			int bits = busyDays[i];
+			for (int day = 1; bits != 0; day++, bits >>>= 1) {
+				if ((bits & 1) != 0) {
+					json.append(day).append(bits > 1 ? "," : "");
+				}
+			}
+			json.append("]}");
+		}
+		json.append("]}");
+	}
+
+	/**
+	 * Adds an event as a JSON object. Recurring events also have their days and
+	 * date span.
+	 */
+	private static void appendEvent(StringBuilder json, Event event) {
+		TimeInterval timeInterval = event.getTimeInterval();
+		json.append("{\"name\":");
+		appendString(json, event.getName());
+		json.append(",\"start\":\"").append(timeInterval.getStartTime()).append("\",\"end\":\"")
+				.append(timeInterval.getEndTime()).append("\",\"recurring\":").append(event.isRecurring());
+		if (event.isRecurring()) {
+			json.append(",\"days\":[");
+			DayOfWeek[] days = event.getRecurringDays();
+			for (int i = 0; i < days.length; i++) {
+				json.append(i > 0 ? ",\"" : "\"").append(days[i].getDisplayName(TextStyle.SHORT, Locale.US))
+						.append('"');
+			}
+			json.append("],\"startDate\":\"").append(event.getStartDate()).append("\",\"endDate\":\"")
+					.append(event.getEndDate()).append('"');
+		}
+		json.append('}');
+	}
+
+	/**
+	 * Adds a string as a JSON string literal.
+	 */
+	private static void appendString(StringBuilder json, String text) {
+		json.append('"');
+		for (int i = 0; i < text.length(); i++) {
+			char c = text.charAt(i);
+			if (c == '"' || c == '\\') {
+				json.append('\\').append(c);
+			} else if (c < 0x20) {
+				json.append(String.format("\\u%04x", (int) c));
+			} else {
+				json.append(c);
+			}
+		}
+		json.append('"');
+	}
+
+	private static void error(StringBuilder json, String message) {
+		json.append("{\"error\":");
+		appendString(json, message == null ? "Invalid request" : message);
+		json.append('}');
+	}
+
+	/**
+	 * Splits a raw query string into decoded parameters.
+	 */
+	private static Map<String, String> parameters(String query) {
+		Map<String, String> parameters = new HashMap<>();
+		if (query == null || query.isEmpty()) {
+			return parameters;
+		}
+		for (String pair : query.split("&")) {
+			int equals = pair.indexOf('=');
+			String name = equals < 0 ? pair : pair.substring(0, equals);
+			String value = equals < 0 ? "" : pair.substring(equals + 1);
+			parameters.put(URLDecoder.decode(name, StandardCharsets.UTF_8),
+					URLDecoder.decode(value, StandardCharsets.UTF_8));
+		}
+		return parameters;
+	}
+
+	private static String required(Map<String, String> parameters, String name) {
+		String value = parameters.get(name);
+		if (value == null) {
+			throw new IllegalArgumentException("Missing parameter: " + name);
+		}
+		return value;
+	}
+
+	private static int intParameter(Map<String, String> parameters, String name, int defaultValue) {
+		String value = parameters.get(name);
+		int number = value == null ? defaultValue : Integer.parseInt(value);
+		if (number < 1) {
+			throw new IllegalArgumentException("Parameter " + name + " must be at least 1");
+		}
+		return number;
+	}
+
+	private static void checkRange(LocalDate from, LocalDate to) {
+		long days = to.toEpochDay() - from.toEpochDay() + 1;
+		if (days < 1 || days > MAX_RANGE_DAYS) {
+			throw new IllegalArgumentException("The range must be 1 to " + MAX_RANGE_DAYS + " days");
+		}
+	}
+
+	/**
+	 * Parses a day of the week such as MON or MONDAY.
+	 */
+	private static DayOfWeek dayOf(String text) {
+		String upper = text.toUpperCase(Locale.US);
+		for (DayOfWeek day : DayOfWeek.values()) {
+			if (day.name().startsWith(upper) && upper.length() >= 2) {
+				return day;
+			}
+		}
+		throw new IllegalArgumentException("Unknown day of the week: " + text);
+	}
+}
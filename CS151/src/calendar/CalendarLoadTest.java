@@ -0,0 +1,254 @@
+package calendar;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * CalendarLoadTest sends a steady stream of queries to a CalendarHttpServer
+ * and reports the latency percentiles per kind of query.
+ *
+ * Requests are sent at a fixed rate (open loop), each on its own virtual
+ * thread, and latency is measured from the time a request was due rather than
+ * the time it was sent. If the server or the client falls behind, the delay
+ * shows up in the percentiles instead of quietly lowering the rate.
+ *
+ * By default an embedded server is started on a free port over a synthetic
+ * ConcurrentCalendar; --url tests a server that is already running.
+ *
+ * Example: java calendar.CalendarLoadTest --events 100000 --rate 2000
+ * --seconds 10
+ *
+ * Options: --events N (synthetic events, default 100000), --recurring SHARE
+ * (default 0.2), --rate N (requests per second, default 2000), --seconds N
+ * (default 10), --warmup N (seconds, default 3), --url BASE (test a running
+ * server).
+ *
+ * Programmed by: Nathan Dinh
+ *
+ * Date: 10/17/2026
+ */
+
+public class CalendarLoadTest {
+
+	// Kinds of query and their share of the requests, in percent
+	private static final String[] KINDS = { "day", "occurrences", "free-slots", "occupancy" };
+	private static final int[] SHARES = { 50, 20, 15, 15 };
+
+	// Number of different requests to cycle through
+	private static final int DISTINCT_REQUESTS = 4096;
+
+	/**
+	 * Starting point of the load test.
+	 *
+	 * @param args options, see the class comment
+	 */
+	public static void main(String[] args) {
+		int events = 100_000;
+		double recurringShare = 0.2;
+		int rate = 2000;
+		int seconds = 10;
+		int warmup = 3;
+		String url = null;
+		for (int i = 0; i < args.length - 1; i += 2) {
+			switch (args[i]) {
+			case "--events":
+				events = Integer.parseInt(args[i + 1]);
+				break;
+			case "--recurring":
+				recurringShare = Double.parseDouble(args[i + 1]);
+				break;
+			case "--rate":
+				rate = Integer.parseInt(args[i + 1]);
+				break;
+			case "--seconds":
+				seconds = Integer.parseInt(args[i + 1]);
+				break;
+			case "--warmup":
+				warmup = Integer.parseInt(args[i + 1]);
+				break;
+			case "--url":
+				url = args[i + 1];
+				break;
+			default:
+				throw new IllegalArgumentException("Unknown option: " + args[i]);
+			}
+		}
+
+		CalendarHttpServer server = null;
+		try {
+			if (url == null) {
+				ConcurrentCalendar calendar = new ConcurrentCalendar();
+				for (Event event : CalendarBenchmark.generateEvents(events, recurringShare, 42)) {
+					calendar.addEvent(event);
+				}
+				server = new CalendarHttpServer(calendar, 0);
+				server.start();
+				url = "http://localhost:" + server.getPort();
+			}
+
+			HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+			int[] kinds = new int[DISTINCT_REQUESTS];
+			HttpRequest[] requests = buildRequests(url, kinds, 7);
+
+			if (warmup > 0) {
+				send(client, requests, kinds, rate, warmup);
+			}
+			long start = System.nanoTime();
+			Result result = send(client, requests, kinds, rate, seconds);
+			double elapsed = (System.nanoTime() - start) / 1e9;
+
+			System.out.printf("%d requests in %.2f s: %.0f requests/sec (target %d), %d failed%n",
+					result.latencies.length, elapsed, result.latencies.length / elapsed, rate, result.failures.get());
+			System.out.printf("%-12s %8s %10s %10s %10s %10s%n", "Query", "Count", "p50 ms", "p90 ms", "p99 ms",
+					"max ms");
+			report("all", result.latencies, result.kinds, -1);
+			for (int kind = 0; kind < KINDS.length; kind++) {
+				report(KINDS[kind], result.latencies, result.kinds, kind);
+			}
+		} catch (IOException e) {
+			System.out.println("An error occurred while running the load test.");
+			e.printStackTrace();
+		} finally {
+			if (server != null) {
+				server.stop(0);
+			}
+		}
+	}
+
+	/**
+	 * Latencies and kinds of the requests of one run, by request.
+	 */
+	private static final class Result {
+		final long[] latencies;
+		final int[] kinds;
+		final AtomicInteger failures = new AtomicInteger();
+
+		Result(int count) {
+			this.latencies = new long[count];
+			this.kinds = new int[count];
+		}
+	}
+
+	/**
+	 * Sends requests at a fixed rate for a number of seconds and waits for all
+	 * of them to complete.
+	 */
+	private static Result send(HttpClient client, HttpRequest[] requests, int[] kinds, int rate, int seconds) {
+		int count = rate * seconds;
+		Result result = new Result(count);
+		double interval = 1e9 / rate;
+		long start = System.nanoTime();
+
+		try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+			for (int i = 0; i < count; i++) {
+				long due = start + (long) (i * interval);
+				long wait = due - System.nanoTime();
+				if (wait > 0) {
+					LockSupport.parkNanos(wait);
+				}
+
+				int index = i;
+				int request = i % requests.length;
+				result.kinds[index] = kinds[request];
+				executor.execute(() -> {
+					try {
+						HttpResponse<byte[]> response = client.send(requests[request],
+								HttpResponse.BodyHandlers.ofByteArray());
+						if (response.statusCode() != 200) {
+							result.failures.incrementAndGet();
+						}
+					} catch (IOException e) {
+						result.failures.incrementAndGet();
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+						result.failures.incrementAndGet();
+					}
+					result.latencies[index] = System.nanoTime() - due;
+				});
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Builds a mix of random queries over the synthetic calendar's dates.
+	 *
+	 * @param url:   base URL of the server
+	 * @param kinds: receives the kind of each request
+	 * @param seed:  seed of the random queries
+	 * @return the requests
+	 */
+	private static HttpRequest[] buildRequests(String url, int[] kinds, long seed) {
+		Random random = new Random(seed);
+		LocalDate[] dates = CalendarBenchmark.randomDates(kinds.length, seed);
+		HttpRequest[] requests = new HttpRequest[kinds.length];
+		for (int i = 0; i < kinds.length; i++) {
+			int pick = random.nextInt(100);
+			int kind = 0;
+			while (pick >= SHARES[kind]) {
+				pick -= SHARES[kind];
+				kind++;
+			}
+			kinds[i] = kind;
+
+			LocalDate date = dates[i];
+			String query;
+			switch (kind) {
+			case 0:
+				query = "/day?date=" + date;
+				break;
+			case 1:
+				query = "/occurrences?from=" + date + "&to=" + date.plusDays(6);
+				break;
+			case 2:
+				query = "/free-slots?from=" + date + "&to=" + date.plusDays(29)
+						+ "&windowStart=09:00&windowEnd=17:00&minutes=45&days=MON,TUE,WED,THU,FRI&limit=20";
+				break;
+			default:
+				query = "/occupancy?month=" + date.toString().substring(0, 7) + "&count=3";
+				break;
+			}
+			requests[i] = HttpRequest.newBuilder(URI.create(url + query)).GET().build();
+		}
+		return requests;
+	}
+
+	/**
+	 * Prints the count and latency percentiles of one kind of query, or of all
+	 * queries if kind is -1.
+	 */
+	private static void report(String name, long[] latencies, int[] kinds, int kind) {
+		long[] selected = new long[latencies.length];
+		int count = 0;
+		for (int i = 0; i < latencies.length; i++) {
+			if (kind < 0 || kinds[i] == kind) {
+				selected[count++] = latencies[i];
+			}
+		}
+		if (count == 0) {
+			return;
+		}
+		Arrays.sort(selected, 0, count);
+		System.out.printf("%-12s %8d %10.2f %10.2f %10.2f %10.2f%n", name, count,
+				percentile(selected, count, 50) / 1e6, percentile(selected, count, 90) / 1e6,
+				percentile(selected, count, 99) / 1e6, selected[count - 1] / 1e6);
+	}
+
+	/**
+	 * Gets a percentile of sorted values by the nearest-rank method.
+	 */
+	private static long percentile(long[] sorted, int count, int percent) {
+		int rank = (int) Math.ceil(percent / 100.0 * count);
+		return sorted[Math.max(rank, 1) - 1];
+	}
+}
@@ -0,0 +1,356 @@
+package calendar;
+
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * CalendarMetrics records what a calendar's main operations cost: how often
+ * each runs, a latency histogram, how many events it touched, and for loads
+ * and saves the bytes and records moved. It is created by
+ * MyCalendar.enableMetrics; a calendar without metrics only pays a null check
+ * per operation.
+ *
+ * The numbers can be read through JMX (registerMBeans), printed as a table
+ * (report), or printed on a schedule (startReporting). Recording is safe from
+ * any number of threads.
+ *
+ * Programmed by: Nathan Dinh
+ *
+ * Date: 10/17/2026
+ */
+
+public class CalendarMetrics implements CalendarMetricsMXBean {
+
+	/**
+	 * The instrumented operations.
+	 */
+	public enum Operation {
+		LOAD_EVENTS("loadEvents"), SAVE_EVENTS("saveEventsToFile"), SAVE_CHANGES("saveChangesToFile"),
+		MERGE_CHANGES("mergeChanges"), GET_EVENTS_ON_DATE("getEventsOnDate"), SHOW_MONTH("showMonth"),
+		FIND_FREE_SLOTS("findFreeSlots"), FOR_EACH_OCCURRENCE("forEachOccurrence"), ADD_EVENT("addEvent"),
+		REMOVE_EVENT("removeEvent");
+
+		private final String methodName;
+
+		Operation(String methodName) {
+			this.methodName = methodName;
+		}
+
+		/**
+		 * Gets the name of the MyCalendar method the operation times.
+		 *
+		 * @return the method name
+		 */
+		public String getMethodName() {
+			return methodName;
+		}
+	}
+
+	/**
+	 * Counters and latency histogram of one operation.
+	 */
+	private static final class OperationMetrics implements OperationMetricsMXBean {
+		private final LongAdder count = new LongAdder();
+		private final LongAdder totalNanos = new LongAdder();
+		private final AtomicLong maxNanos = new AtomicLong();
+		private final LatencyHistogram histogram = new LatencyHistogram();
+		private final LongAdder events = new LongAdder();
+		private final LongAdder bytes = new LongAdder();
+
+		void record(long nanos, long eventCount) {
+			count.increment();
+			totalNanos.add(nanos);
+			maxNanos.accumulateAndGet(nanos, Math::max);
+			histogram.record(nanos);
+			events.add(eventCount);
+		}
+
+		void reset() {
+			count.reset();
+			totalNanos.reset();
+			maxNanos.set(0);
+			histogram.clear();
+			events.reset();
+			bytes.reset();
+		}
+
+		@Override
+		public long getCount() {
+			return count.sum();
+		}
+
+		@Override
+		public double getMeanMicros() {
+			long calls = count.sum();
+			return calls == 0 ? 0 : totalNanos.sum() / 1e3 / calls;
+		}
+
+		@Override
+		public double getP50Micros() {
+			return percentileMicros(0.50);
+		}
+
+		@Override
+		public double getP90Micros() {
+			return percentileMicros(0.90);
+		}
+
+		@Override
+		public double getP99Micros() {
+			return percentileMicros(0.99);
+		}
+
+		@Override
+		public double getMaxMicros() {
+			return maxNanos.get() / 1e3;
+		}
+
+		@Override
+		public long getEventsScanned() {
+			return events.sum();
+		}
+
+		@Override
+		public double getEventsPerCall() {
+			long calls = count.sum();
+			return calls == 0 ? 0 : (double) events.sum() / calls;
+		}
+
+		@Override
+		public long getBytes() {
+			return bytes.sum();
+		}
+
+		@Override
+		public double getBytesPerSecond() {
+			return perSecond(bytes.sum());
+		}
+
+		@Override
+		public double getRecordsPerSecond() {
+			return perSecond(events.sum());
+		}
+
+		private double percentileMicros(double share) {
+			// The histogram rounds up, which must not pass the largest time seen
+			return Math.min(histogram.percentile(share), maxNanos.get()) / 1e3;
+		}
+
+		private double perSecond(long amount) {
+			long nanos = totalNanos.sum();
+			return nanos == 0 ? 0 : amount * 1e9 / nanos;
+		}
+	}
+
+	private final MyCalendar calendar;
+	private final OperationMetrics[] operations;
+
+	// Names the MBeans were registered under, empty when not registered
+	private final List<ObjectName> registered;
+
+	// Thread printing the periodic report, or null
+	private ScheduledExecutorService reporter;
+
+	/**
+	 * Constructor for empty metrics of the given calendar.
+	 *
+	 * @param calendar: the calendar whose size and cache are reported
+	 */
+	CalendarMetrics(MyCalendar calendar) {
+		this.calendar = calendar;
+		this.operations = new OperationMetrics[Operation.values().length];
+		for (int i = 0; i < operations.length; i++) {
+			operations[i] = new OperationMetrics();
+		}
+		this.registered = new ArrayList<>();
+	}
+
+	/**
+	 * Records one call of an operation that started at the given time.
+	 *
+	 * @param operation:  the operation
+	 * @param startNanos: System.nanoTime() when the call started
+	 * @param events:     events the call touched
+	 */
+	void record(Operation operation, long startNanos, long events) {
+		operations[operation.ordinal()].record(System.nanoTime() - startNanos, events);
+	}
+
+	/**
+	 * Records the bytes a load or save moved, besides its call.
+	 *
+	 * @param operation: the operation
+	 * @param bytes:     bytes read or written
+	 */
+	void recordBytes(Operation operation, long bytes) {
+		operations[operation.ordinal()].bytes.add(bytes);
+	}
+
+	/**
+	 * Gets the metrics of one operation.
+	 *
+	 * @param operation: the operation
+	 * @return its live metrics
+	 */
+	public OperationMetricsMXBean get(Operation operation) {
+		return operations[operation.ordinal()];
+	}
+
+	@Override
+	public int getEventCount() {
+		return calendar.getEventCount();
+	}
+
+	@Override
+	public long getEstimatedHeapBytes() {
+		return calendar.getEstimatedHeapBytes();
+	}
+
+	@Override
+	public double getEstimatedBytesPerEvent() {
+		int events = getEventCount();
+		return events == 0 ? 0 : (double) getEstimatedHeapBytes() / events;
+	}
+
+	@Override
+	public long getDayViewCacheHits() {
+		return calendar.getDayViewCacheStats().getHits();
+	}
+
+	@Override
+	public long getDayViewCacheMisses() {
+		return calendar.getDayViewCacheStats().getMisses();
+	}
+
+	@Override
+	public long getDayViewCacheEvictions() {
+		return calendar.getDayViewCacheStats().getEvictions();
+	}
+
+	@Override
+	public double getDayViewCacheHitRate() {
+		return calendar.getDayViewCacheStats().getHitRate();
+	}
+
+	@Override
+	public long getUsedHeapBytes() {
+		Runtime runtime = Runtime.getRuntime();
+		return runtime.totalMemory() - runtime.freeMemory();
+	}
+
+	@Override
+	public void reset() {
+		for (OperationMetrics metrics : operations) {
+			metrics.reset();
+		}
+	}
+
+	/**
+	 * Registers the calendar and each operation as MBeans on the platform MBean
+	 * server, under calendar:type=Calendar,name=NAME and
+	 * calendar:type=Operation,calendar=NAME,name=METHOD.
+	 *
+	 * @param name: name that tells this calendar's MBeans apart from others
+	 * @throws JMException if the names are taken or invalid
+	 */
+	public synchronized void registerMBeans(String name) throws JMException {
+		unregisterMBeans();
+		MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		String quoted = ObjectName.quote(name);
+		register(server, new ObjectName("calendar:type=Calendar,name=" + quoted),
+				new MBeanAdapter(this, CalendarMetricsMXBean.class));
+		for (Operation operation : Operation.values()) {
+			register(server,
+					new ObjectName("calendar:type=Operation,calendar=" + quoted + ",name=" + operation.getMethodName()),
+					new MBeanAdapter(operations[operation.ordinal()],
+							OperationMetricsMXBean.class));
+		}
+	}
+
+	private void register(MBeanServer server, ObjectName objectName, MBeanAdapter bean) throws JMException {
+		server.registerMBean(bean, objectName);
+		registered.add(objectName);
+	}
+
+	/**
+	 * Removes the MBeans registered by registerMBeans, if any.
+	 */
+	public synchronized void unregisterMBeans() {
+		MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		for (ObjectName objectName : registered) {
+			try {
+				server.unregisterMBean(objectName);
+			} catch (JMException e) {
+				System.out.println("An error occurred while unregistering " + objectName + ".");
+				e.printStackTrace();
+			}
+		}
+		registered.clear();
+	}
+
+	/**
+	 * Prints the report on a background thread every period until
+	 * stopReporting is called.
+	 *
+	 * @param period: time between reports
+	 * @param out:    where to print the reports
+	 */
+	public synchronized void startReporting(Duration period, PrintStream out) {
+		stopReporting();
+		reporter = Executors.newSingleThreadScheduledExecutor(task -> {
+			Thread thread = new Thread(task, "calendar-metrics");
+			thread.setDaemon(true);
+			return thread;
+		});
+		long millis = period.toMillis();
+		reporter.scheduleAtFixedRate(() -> out.print(report()), millis, millis, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Stops the periodic report, if it is running.
+	 */
+	public synchronized void stopReporting() {
+		if (reporter != null) {
+			reporter.shutdownNow();
+			reporter = null;
+		}
+	}
+
+	/**
+	 * Builds a text table of the calendar and every operation that has run.
+	 *
+	 * @return the report, ending with a line separator
+	 */
+	public String report() {
+		StringBuilder text = new StringBuilder();
+		String newline = System.lineSeparator();
+		CacheStats cache = calendar.getDayViewCacheStats();
+		text.append(String.format("Calendar: %d events, about %.1f MB (%.0f bytes/event), day view cache: %s",
+				getEventCount(), getEstimatedHeapBytes() / 1e6, getEstimatedBytesPerEvent(), cache)).append(newline);
+		text.append(String.format("%-18s %10s %10s %10s %10s %10s %12s %10s %12s", "Operation", "Count", "Mean us",
+				"p50 us", "p99 us", "Max us", "Events/call", "MB/s", "Records/s")).append(newline);
+		for (Operation operation : Operation.values()) {
+			OperationMetrics metrics = operations[operation.ordinal()];
+			if (metrics.getCount() == 0) {
+				continue;
+			}
+			text.append(String.format("%-18s %10d %10.1f %10.1f %10.1f %10.1f %12.1f %10.1f %12.0f",
+					operation.getMethodName(), metrics.getCount(), metrics.getMeanMicros(), metrics.getP50Micros(),
+					metrics.getP99Micros(), metrics.getMaxMicros(), metrics.getEventsPerCall(),
+					metrics.getBytesPerSecond() / 1e6, metrics.getRecordsPerSecond())).append(newline);
+		}
+		return text.toString();
+	}
+}
@@ -0,0 +1,41 @@
+package calendar;
+
+/**
+ * CalendarMetricsMXBean is the JMX view of a calendar as a whole: its size,
+ * its estimated memory and its day view cache. Each operation has its own
+ * OperationMetricsMXBean.
+ *
+ * Programmed by: Nathan Dinh
+ *
+ * Date: 10/17/2026
+ */
+
+public interface CalendarMetricsMXBean {
+
+	int getEventCount();
+
+	/**
+	 * Estimated heap taken by the events and their indexes.
+	 */
+	long getEstimatedHeapBytes();
+
+	double getEstimatedBytesPerEvent();
+
+	long getDayViewCacheHits();
+
+	long getDayViewCacheMisses();
+
+	long getDayViewCacheEvictions();
+
+	double getDayViewCacheHitRate();
+
+	/**
+	 * Heap in use by the whole JVM, for comparison with the estimate.
+	 */
+	long getUsedHeapBytes();
+
+	/**
+	 * Clears the counters and histograms of every operation.
+	 */
+	void reset();
+}
@@ -0,0 +1,189 @@
+package calendar;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.CharBuffer;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * CalendarRenderer builds the text of the month and day views into a reusable
+ * char buffer and writes the whole view to an Appendable in one call, instead
+ * of a printf per day cell. Day cells come from precomputed two-digit strings,
+ * so no formatter runs while rendering.
+ *
+ * The output is the same, byte for byte, as the System.out calls it replaces,
+ * including the platform line separator used by println.
+ *
+ * A renderer is not thread safe; use one per thread.
+ *
+ * Programmed by: Nathan Dinh
+ *
+ * Date: 10/17/2026
+ */
+
+class CalendarRenderer {
+
+	// Line separator println writes
+	private static final String NEWLINE = System.lineSeparator();
+
+	// Cells of every day of the month as "%2d ", "[%2d] ", "{%2d} " and
+	// "[{%2d}] ", by day
+	private static final char[][] PLAIN_CELLS = cells("", " ");
+	private static final char[][] TODAY_CELLS = cells("[", "] ");
+	private static final char[][] BUSY_CELLS = cells("{", "} ");
+	private static final char[][] BUSY_TODAY_CELLS = cells("[{", "}] ");
+
+	// Empty cell before the first day of the month
+	private static final String BLANK_CELL = "   ";
+
+	// Rendered text waiting to be written
+	private char[] buffer;
+	private int length;
+
+	/**
+	 * Constructor for an empty renderer.
+	 */
+	CalendarRenderer() {
+		this.buffer = new char[1024];
+	}
+
+	/**
+	 * Renders a month grid: a title line, the weekday header and the days of the
+	 * month in weeks starting on Sunday.
+	 *
+	 * @param title:        first line of the view
+	 * @param firstOfMonth: first day of the month
+	 * @param busyDays:     days with events, bit day - 1 set for each
+	 * @param today:        day of the month to mark as today, or 0 for none
+	 * @return this renderer
+	 */
+	CalendarRenderer appendMonth(String title, LocalDate firstOfMonth, int busyDays, int today) {
+		appendLine(title);
+		appendLine("Su Mo Tu We Th Fr Sa");
+
+		// Sunday = 0, Saturday = 6
+		int startDayOfWeek = firstOfMonth.getDayOfWeek().getValue() % 7;
+		for (int i = 0; i < startDayOfWeek; i++) {
+			append(BLANK_CELL);
+		}
+
+		int monthLength = firstOfMonth.lengthOfMonth();
+		for (int day = 1; day <= monthLength; day++) {
+			boolean busy = MonthOccupancyCache.isBusy(busyDays, day);
+			if (day == today) {
+				append(busy ? BUSY_TODAY_CELLS[day] : TODAY_CELLS[day]);
+			} else {
+				append(busy ? BUSY_CELLS[day] : PLAIN_CELLS[day]);
+			}
+
+			// Newline after Saturday
+			if ((day + startDayOfWeek) % 7 == 0) {
+				append(NEWLINE);
+			}
+		}
+		append(NEWLINE);
+		return this;
+	}
+
+	/**
+	 * Renders the day view: a title line and one line per event, or a line saying
+	 * there are none.
+	 *
+	 * @param date:   the date of the view
+	 * @param events: the events on the date, in display order
+	 * @return this renderer
+	 */
+	CalendarRenderer appendDay(LocalDate date, List<Event> events) {
+		String dateText = date.toString();
+		append("Day View for ").appendLine(dateText);
+		if (events.isEmpty()) {
+			append("No events scheduled for ").appendLine(dateText);
+		} else {
+			for (Event event : events) {
+				TimeInterval timeInterval = event.getTimeInterval();
+				append(event.getName()).append(": ").append(timeInterval.getStartTime().toString()).append(" - ")
+						.appendLine(timeInterval.getEndTime().toString());
+			}
+		}
+		return this;
+	}
+
+	/**
+	 * Adds text to the buffer.
+	 *
+	 * @param text: the text to add
+	 * @return this renderer
+	 */
+	CalendarRenderer append(String text) {
+		int textLength = text.length();
+		ensureCapacity(textLength);
+		text.getChars(0, textLength, buffer, length);
+		length += textLength;
+		return this;
+	}
+
+	/**
+	 * Adds text and a line separator to the buffer, like println.
+	 *
+	 * @param text: the text to add
+	 * @return this renderer
+	 */
+	CalendarRenderer appendLine(String text) {
+		return append(text).append(NEWLINE);
+	}
+
+	private void append(char[] chars) {
+		ensureCapacity(chars.length);
+		System.arraycopy(chars, 0, buffer, length, chars.length);
+		length += chars.length;
+	}
+
+	private void ensureCapacity(int extra) {
+		if (length + extra > buffer.length) {
+			buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, length + extra));
+		}
+	}
+
+	/**
+	 * Writes everything rendered so far in one call and empties the buffer, keeping
+	 * its memory for the next view.
+	 *
+	 * @param out: where to write, for example System.out or a Writer
+	 * @throws IOException if the output cannot be written
+	 */
+	void writeTo(Appendable out) throws IOException {
+		try {
+			if (out instanceof Writer) {
+				((Writer) out).write(buffer, 0, length);
+			} else {
+				out.append(CharBuffer.wrap(buffer, 0, length));
+			}
+		} finally {
+			length = 0;
+		}
+	}
+
+	/**
+	 * Gets the rendered text, mainly for comparing it with other output.
+	 *
+	 * @return the text in the buffer
+	 */
+	@Override
+	public String toString() {
+		return new String(buffer, 0, length);
+	}
+
+	/**
+	 * Builds the cells of days 1 to 31 with the given marks around the number.
+	 */
+	private static char[][] cells(String before, String after) {
+		char[][] cells = new char[32][];
+		for (int day = 1; day <= 31; day++) {
+			String number = day < 10 ? " " + day : Integer.toString(day);
+			cells[day] = (before + number + after).toCharArray();
+		}
+		return cells;
+	}
+}
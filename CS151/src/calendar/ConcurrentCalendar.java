@@ -0,0 +1,323 @@
+package calendar;
+
+import java.io.IOException;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * ConcurrentCalendar is a MyCalendar that can be shared between threads. Any
+ * number of threads may query it at the same time, while adding, deleting and
+ * loading events waits for the readers to finish and runs alone, so readers
+ * never see a half-applied change or a ConcurrentModificationException.
+ *
+ * The interactive deleteEvent prompt is not locked as a whole; it locks each
+ * lookup and delete it makes, so a user typing does not block other threads.
+ *
+ * Programmed by: Nathan Dinh
+ *
+ * Date: 10/17/2026
+ */
+
+public class ConcurrentCalendar extends MyCalendar {
+
+	// Shared lock for queries, exclusive lock for changes
+	private final Lock readLock;
+	private final Lock writeLock;
+
+	/**
+	 * Default constructor with no events.
+	 */
+	public ConcurrentCalendar() {
+		this(false);
+	}
+
+	/**
+	 * Constructor for an empty calendar that can keep its events packed, as for
+	 * MyCalendar(boolean).
+	 *
+	 * @param packed: true to pack the events, false to keep the Event objects
+	 */
+	public ConcurrentCalendar(boolean packed) {
+		super(packed);
+		ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+		this.readLock = lock.readLock();
+		this.writeLock = lock.writeLock();
+	}
+
+	@Override
+	public void loadEvents(String filename) {
+		withWriteLock(() -> super.loadEvents(filename));
+	}
+
+	@Override
+	public void loadEventsParallel(String filename, ForkJoinPool pool) {
+		withWriteLock(() -> super.loadEventsParallel(filename, pool));
+	}
+
+	@Override
+	public void addEvent(Event event) {
+		withWriteLock(() -> super.addEvent(event));
+	}
+
+	@Override
+	public boolean removeEvent(Event event) {
+		return withWriteLock(() -> super.removeEvent(event));
+	}
+
+	@Override
+	public int removeEvents(Collection<Event> toRemove) {
+		return withWriteLock(() -> super.removeEvents(toRemove));
+	}
+
+	@Override
+	public int deleteEventsByNames(Collection<String> eventNames) {
+		return withWriteLock(() -> super.deleteEventsByNames(eventNames));
+	}
+
+	@Override
+	public boolean deleteOneTimeEvent(LocalDate date, String eventName) {
+		return withWriteLock(() -> super.deleteOneTimeEvent(date, eventName));
+	}
+
+	@Override
+	public int deleteOneTimeEventsOn(LocalDate date) {
+		return withWriteLock(() -> super.deleteOneTimeEventsOn(date));
+	}
+
+	@Override
+	public int deleteEventsBetween(LocalDate from, LocalDate to, String eventName, boolean clipRecurring) {
+		return withWriteLock(() -> super.deleteEventsBetween(from, to, eventName, clipRecurring));
+	}
+
+	@Override
+	public boolean deleteRecurringEventByName(String eventName) {
+		return withWriteLock(() -> super.deleteRecurringEventByName(eventName));
+	}
+
+	@Override
+	public ConflictReport importEvents(List<Event> candidates) {
+		return withWriteLock(() -> super.importEvents(candidates));
+	}
+
+	@Override
+	public void openJournal(String snapshotFile, String journalFile) {
+		withWriteLock(() -> super.openJournal(snapshotFile, journalFile));
+	}
+
+	@Override
+	public void compact() {
+		withWriteLock(super::compact);
+	}
+
+	@Override
+	public void flushJournal() {
+		withWriteLock(super::flushJournal);
+	}
+
+	@Override
+	public void closeJournal() {
+		withWriteLock(super::closeJournal);
+	}
+
+	@Override
+	public void loadSnapshot(String filename) {
+		withWriteLock(() -> super.loadSnapshot(filename));
+	}
+
+	@Override
+	public List<Event> getEventsOnDate(LocalDate date) {
+		return withReadLock(() -> super.getEventsOnDate(date));
+	}
+
+	/**
+	 * Gets the occurrences of all events between two dates in chronological order.
+	 * Because the lock cannot be held while the caller consumes a stream, the
+	 * occurrences are collected under the read lock first; use forEachOccurrence
+	 * for long ranges.
+	 */
+	@Override
+	public Stream<Occurrence> occurrences(LocalDate from, LocalDate to) {
+		return withReadLock(() -> super.occurrences(from, to).collect(Collectors.toList())).stream();
+	}
+
+	@Override
+	public void forEachOccurrence(LocalDate from, LocalDate to, Consumer<Occurrence> action) {
+		withReadLock(() -> super.forEachOccurrence(from, to, action));
+	}
+
+	@Override
+	public List<Occurrence> getOccurrences(LocalDate from, LocalDate to, int max) {
+		return withReadLock(() -> super.getOccurrences(from, to, max));
+	}
+
+	@Override
+	public List<TimeInterval> findFreeSlots(LocalDate from, LocalDate to, LocalTime windowStart, LocalTime windowEnd,
+			Duration length, Set<DayOfWeek> days, int limit) {
+		return withReadLock(() -> super.findFreeSlots(from, to, windowStart, windowEnd, length, days, limit));
+	}
+
+	@Override
+	public DayOccupancy getDayOccupancy(LocalDate date) {
+		return withReadLock(() -> super.getDayOccupancy(date));
+	}
+
+	@Override
+	public int getEventCount() {
+		return withReadLock(() -> super.getEventCount());
+	}
+
+	@Override
+	public long getEstimatedHeapBytes() {
+		return withReadLock(() -> super.getEstimatedHeapBytes());
+	}
+
+	@Override
+	public CalendarMetrics enableMetrics() {
+		return withWriteLock(() -> super.enableMetrics());
+	}
+
+	@Override
+	public void disableMetrics() {
+		withWriteLock(() -> super.disableMetrics());
+	}
+
+	@Override
+	public CalendarMetrics getMetrics() {
+		return withReadLock(() -> super.getMetrics());
+	}
+
+	@Override
+	public Event findConflict(LocalDate date, LocalTime startTime, LocalTime endTime) {
+		return withReadLock(() -> super.findConflict(date, startTime, endTime));
+	}
+
+	@Override
+	BitSet busyMinutes(LocalDate from, LocalDate to) {
+		return withReadLock(() -> super.busyMinutes(from, to));
+	}
+
+	@Override
+	public ConflictReport findConflicts(List<Event> candidates) {
+		return withReadLock(() -> super.findConflicts(candidates));
+	}
+
+	@Override
+	public void showMonth(LocalDate date) {
+		withReadLock(() -> super.showMonth(date));
+	}
+
+	@Override
+	public void showMonth(LocalDate date, Appendable out) throws IOException {
+		readLock.lock();
+		try {
+			super.showMonth(date, out);
+		} finally {
+			readLock.unlock();
+		}
+	}
+
+	@Override
+	public void showMonths(LocalDate date, int count, Appendable out) throws IOException {
+		readLock.lock();
+		try {
+			super.showMonths(date, count, out);
+		} finally {
+			readLock.unlock();
+		}
+	}
+
+	@Override
+	public void prefetchMonths(LocalDate date, int count) {
+		withReadLock(() -> super.prefetchMonths(date, count));
+	}
+
+	@Override
+	public int[] getMonthOccupancy(LocalDate date, int count) {
+		return withReadLock(() -> super.getMonthOccupancy(date, count));
+	}
+
+	@Override
+	public void showAllEvents() {
+		withReadLock(super::showAllEvents);
+	}
+
+	@Override
+	public void saveEventsToFile(String filename) {
+		// Saving also resets the tracked changes, so it takes the write lock
+		withWriteLock(() -> super.saveEventsToFile(filename));
+	}
+
+	@Override
+	public void saveChangesToFile(String filename) {
+		withWriteLock(() -> super.saveChangesToFile(filename));
+	}
+
+	@Override
+	public boolean adoptSavedFile(String filename) {
+		return withWriteLock(() -> super.adoptSavedFile(filename));
+	}
+
+	@Override
+	public void startMergingChanges(Duration period) {
+		withWriteLock(() -> super.startMergingChanges(period));
+	}
+
+	@Override
+	public void stopMergingChanges() {
+		withWriteLock(() -> super.stopMergingChanges());
+	}
+
+	@Override
+	public void saveSnapshot(String filename) {
+		withReadLock(() -> super.saveSnapshot(filename));
+	}
+
+	private <T> T withReadLock(Supplier<T> action) {
+		readLock.lock();
+		try {
+			return action.get();
+		} finally {
+			readLock.unlock();
+		}
+	}
+
+	private void withReadLock(Runnable action) {
+		readLock.lock();
+		try {
+			action.run();
+		} finally {
+			readLock.unlock();
+		}
+	}
+
+	private <T> T withWriteLock(Supplier<T> action) {
+		writeLock.lock();
+		try {
+			return action.get();
+		} finally {
+			writeLock.unlock();
+		}
+	}
+
+	private void withWriteLock(Runnable action) {
+		writeLock.lock();
+		try {
+			action.run();
+		} finally {
+			writeLock.unlock();
+		}
+	}
+}
@@ -0,0 +1,143 @@
+package calendar;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * ConflictDetector checks a batch of new events against the calendar and
+ * against each other in one pass. The busy times of every day the batch
+ * touches are loaded once from the index into a per-day interval tree (in
+ * seconds of the day), and each new event is checked and, if it fits, added to
+ * those trees. An event therefore costs O(log n) per occurrence instead of a
+ * scan of the calendar.
+ *
+ * Events are decided in batch order, so when two new events overlap the
+ * earlier one wins. Like TimeInterval.overlaps, intervals that only touch at
+ * their end points count as overlapping.
+ *
+ * Programmed by: Nathan Dinh
+ *
+ * Date: 10/17/2026
+ */
+
+class ConflictDetector {
+
+	// Source of the calendar's existing events
+	private final EventStore index;
+
+	// Busy intervals of each day looked at so far, by epoch day
+	private final Map<Long, IntervalTree<Event>> busyByDay;
+
+	// Events accepted from the batch, to tell them apart from existing ones
+	private final Set<Event> accepted;
+
+	// Unique tie breaker for intervals with the same start
+	private long nextTie;
+
+	/**
+	 * Constructor for a detector over the given index.
+	 *
+	 * @param index: index of the calendar's events
+	 */
+	ConflictDetector(EventStore index) {
+		this.index = index;
+		this.busyByDay = new HashMap<>();
+		this.accepted = Collections.newSetFromMap(new IdentityHashMap<>());
+	}
+
+	/**
+	 * Checks every candidate in batch order.
+	 *
+	 * @param candidates: the new events
+	 * @return which events fit and which conflict
+	 */
+	ConflictReport check(List<Event> candidates) {
+		ConflictReport report = new ConflictReport();
+		for (Event candidate : candidates) {
+			List<Event> conflicts = findConflicts(candidate);
+			if (conflicts.isEmpty()) {
+				markBusy(candidate);
+				accepted.add(candidate);
+				report.accept(candidate);
+			} else {
+				report.reject(new ConflictReport.Rejection(candidate, conflicts, describe(conflicts)));
+			}
+		}
+		return report;
+	}
+
+	/**
+	 * Finds every existing or accepted event that overlaps an occurrence of the
+	 * candidate, each once, by day and then by start time.
+	 */
+	private List<Event> findConflicts(Event candidate) {
+		List<Event> conflicts = new ArrayList<>();
+		// By equality, since a packed store hands out a new copy of an event per day
+		Set<Event> seen = new HashSet<>();
+		int start = candidate.getTimeInterval().getStartTime().toSecondOfDay();
+		int end = candidate.getTimeInterval().getEndTime().toSecondOfDay();
+		for (long day = candidate.getFirstEpochDay(); day <= candidate.getLastEpochDay(); day++) {
+			if (candidate.occursOn(day)) {
+				busyOn(day).overlapping(start, end, event -> {
+					if (seen.add(event)) {
+						conflicts.add(event);
+					}
+				});
+			}
+		}
+		return conflicts;
+	}
+
+	/**
+	 * Adds every occurrence of an accepted candidate to the busy trees.
+	 */
+	private void markBusy(Event candidate) {
+		int start = candidate.getTimeInterval().getStartTime().toSecondOfDay();
+		int end = candidate.getTimeInterval().getEndTime().toSecondOfDay();
+		for (long day = candidate.getFirstEpochDay(); day <= candidate.getLastEpochDay(); day++) {
+			if (candidate.occursOn(day)) {
+				busyOn(day).insert(start, end, nextTie++, candidate);
+			}
+		}
+	}
+
+	/**
+	 * Gets the busy tree of a day, filling it from the index the first time.
+	 */
+	private IntervalTree<Event> busyOn(long day) {
+		IntervalTree<Event> busy = busyByDay.get(day);
+		if (busy == null) {
+			busy = new IntervalTree<>();
+			for (Event event : index.eventsOn(LocalDate.ofEpochDay(day))) {
+				busy.insert(event.getTimeInterval().getStartTime().toSecondOfDay(),
+						event.getTimeInterval().getEndTime().toSecondOfDay(), nextTie++, event);
+			}
+			busyByDay.put(day, busy);
+		}
+		return busy;
+	}
+
+	/**
+	 * Builds the rejection reason, in the same words createEvent uses.
+	 */
+	private String describe(List<Event> conflicts) {
+		StringBuilder sb = new StringBuilder("Time conflict detected with ");
+		for (int i = 0; i < conflicts.size(); i++) {
+			Event event = conflicts.get(i);
+			if (i > 0) {
+				sb.append(", ");
+			}
+			sb.append(accepted.contains(event) ? "batch event: " : "event: ").append(event.getName()).append(" (")
+					.append(event.getTimeInterval().getStartTime()).append(" - ")
+					.append(event.getTimeInterval().getEndTime()).append(")");
+		}
+		return sb.toString();
+	}
+}
@@ -0,0 +1,107 @@
+package calendar;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * ConflictReport is the result of checking a batch of new events against a
+ * calendar: the events that fit, and the events that were turned down together
+ * with the events they conflict with.
+ *
+ * Programmed by: Nathan Dinh
+ *
+ * Date: 10/17/2026
+ */
+
+public class ConflictReport {
+
+	/**
+	 * A rejected event and why it was rejected.
+	 */
+	public static class Rejection {
+
+		private final Event event;
+		private final List<Event> conflicts;
+		private final String reason;
+
+		/**
+		 * Constructor for a rejection.
+		 *
+		 * @param event:     the rejected event
+		 * @param conflicts: the events it overlaps with
+		 * @param reason:    a readable description of the conflict
+		 */
+		Rejection(Event event, List<Event> conflicts, String reason) {
+			this.event = event;
+			this.conflicts = Collections.unmodifiableList(conflicts);
+			this.reason = reason;
+		}
+
+		/**
+		 * Gets the rejected event.
+		 *
+		 * @return the rejected event
+		 */
+		public Event getEvent() {
+			return event;
+		}
+
+		/**
+		 * Gets the events the rejected event overlaps with, either already in the
+		 * calendar or accepted earlier in the same batch.
+		 *
+		 * @return the conflicting events
+		 */
+		public List<Event> getConflicts() {
+			return conflicts;
+		}
+
+		/**
+		 * Gets a readable description of the conflict.
+		 *
+		 * @return the reason the event was rejected
+		 */
+		public String getReason() {
+			return reason;
+		}
+	}
+
+	// Events that fit, and events that were turned down
+	private final List<Event> accepted;
+	private final List<Rejection> rejected;
+
+	/**
+	 * Default constructor with an empty report.
+	 */
+	ConflictReport() {
+		this.accepted = new ArrayList<>();
+		this.rejected = new ArrayList<>();
+	}
+
+	/**
+	 * Gets the events that do not conflict with anything, in batch order.
+	 *
+	 * @return the accepted events
+	 */
+	public List<Event> getAccepted() {
+		return Collections.unmodifiableList(accepted);
+	}
+
+	/**
+	 * Gets the events that were rejected, in batch order.
+	 *
+	 * @return the rejections
+	 */
+	public List<Rejection> getRejected() {
+		return Collections.unmodifiableList(rejected);
+	}
+
+	void accept(Event event) {
+		accepted.add(event);
+	}
+
+	void reject(Rejection rejection) {
+		rejected.add(rejection);
+	}
+}
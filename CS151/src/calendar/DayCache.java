@@ -0,0 +1,184 @@
+package calendar;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongFunction;
+
+/**
+ * DayCache keeps a value per date, such as the events or the busy minutes of
+ * the day, for at most capacity dates. DayEventsCache keeps the day view in
+ * one and DayOccupancyCache the minute bitsets.
+ *
+ * A hit only reads a concurrent map and stamps the entry with the current
+ * clock, so readers that share the calendar's read lock never wait for each
+ * other. The clock advances on every miss, which makes the stamps an
+ * approximate order of use. When the cache grows past its capacity, the entries
+ * with the oldest stamps are dropped together, an eighth of the capacity at a
+ * time, so the exclusive lock taken to evict is rarely needed. Invalidation
+ * takes the same lock and is only called while no reader is active.
+ *
+ * Programmed by: Nathan Dinh
+ *
+ * Date: 10/17/2026
+ */
+
+class DayCache<V> {
+
+	/**
+	 * A cached value and when it was last used.
+	 */
+	private static final class Entry<V> {
+		final V value;
+		volatile long lastUsed;
+
+		Entry(V value, long lastUsed) {
+			this.value = value;
+			this.lastUsed = lastUsed;
+		}
+	}
+
+	// Cached values by epoch day
+	private final ConcurrentHashMap<Long, Entry<V>> days;
+	private final int capacity;
+
+	// Advanced on every miss; entries are stamped with it when used
+	private final AtomicLong clock;
+
+	// Counters for CacheStats
+	private final LongAdder hits;
+	private final LongAdder misses;
+	private final LongAdder evictions;
+
+	/**
+	 * Constructor for an empty cache of at most capacity dates.
+	 *
+	 * @param capacity: the most dates to keep
+	 */
+	DayCache(int capacity) {
+		if (capacity < 1) {
+			throw new IllegalArgumentException("The cache capacity must be at least 1");
+		}
+		this.capacity = capacity;
+		this.days = new ConcurrentHashMap<>(Math.min(capacity, 1 << 16));
+		this.clock = new AtomicLong();
+		this.hits = new LongAdder();
+		this.misses = new LongAdder();
+		this.evictions = new LongAdder();
+	}
+
+	/**
+	 * Gets the value of a date, loading it the first time the date is asked for
+	 * or after it was dropped. The value is loaded outside any lock; if another
+	 * reader stored the date meanwhile, its value is kept.
+	 *
+	 * @param day:  the epoch day to look up
+	 * @param load: builds the value of a missing day
+	 * @return the value of the day
+	 */
+	V get(long day, LongFunction<V> load) {
+		Entry<V> entry = days.get(day);
+		if (entry != null) {
+			hits.increment();
+			long now = clock.get();
+			// Skip the write when the stamp is current, to keep the line shared
+			if (entry.lastUsed != now) {
+				entry.lastUsed = now;
+			}
+			return entry.value;
+		}
+		misses.increment();
+
+		Entry<V> loaded = new Entry<>(load.apply(day), clock.incrementAndGet());
+		Entry<V> existing = days.putIfAbsent(day, loaded);
+		if (existing != null) {
+			return existing.value;
+		}
+		if (days.size() > capacity) {
+			evict();
+		}
+		return loaded.value;
+	}
+
+	/**
+	 * Drops the least recently used entries until an eighth of the capacity is
+	 * free again.
+	 */
+	private synchronized void evict() {
+		int size = days.size();
+		if (size <= capacity) {
+			return;
+		}
+		int toDrop = size - capacity + Math.max(1, capacity / 8);
+
+		// The stamp of the toDrop-th oldest entry is the cut-off
+		long[] stamps = new long[size];
+		int count = 0;
+		for (Entry<V> entry : days.values()) {
+			if (count == stamps.length) {
+				break;
+			}
+			stamps[count++] = entry.lastUsed;
+		}
+		Arrays.sort(stamps, 0, count);
+		long cutoff = stamps[Math.min(toDrop, count) - 1];
+
+		Iterator<Map.Entry<Long, Entry<V>>> iterator = days.entrySet().iterator();
+		int dropped = 0;
+		while (dropped < toDrop && iterator.hasNext()) {
+			Map.Entry<Long, Entry<V>> next = iterator.next();
+			if (next.getValue().lastUsed <= cutoff && days.remove(next.getKey(), next.getValue())) {
+				dropped++;
+			}
+		}
+		evictions.add(dropped);
+	}
+
+	/**
+	 * Drops the cached dates that the given event occurs on.
+	 *
+	 * @param event: the event that was added or removed
+	 */
+	synchronized void invalidate(Event event) {
+		if (days.isEmpty()) {
+			return;
+		}
+		long first = event.getFirstEpochDay();
+		long last = event.getLastEpochDay();
+
+		// Long recurring events are cheaper to handle by walking the cache itself
+		if (last - first + 1 > days.size()) {
+			Iterator<Long> iterator = days.keySet().iterator();
+			while (iterator.hasNext()) {
+				if (event.occursOn(iterator.next())) {
+					iterator.remove();
+				}
+			}
+		} else {
+			for (long day = first; day <= last; day++) {
+				if (event.occursOn(day)) {
+					days.remove(day);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Removes every cached date. The counters are kept.
+	 */
+	synchronized void clear() {
+		days.clear();
+	}
+
+	/**
+	 * Gets a snapshot of the counters.
+	 *
+	 * @return the hits, misses, evictions and size of the cache
+	 */
+	CacheStats getStats() {
+		return new CacheStats(hits.sum(), misses.sum(), evictions.sum(), days.size(), capacity);
+	}
+}
@@ -0,0 +1,76 @@
+package calendar;
+
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * DayEventsCache remembers the events of the most recently viewed dates, so
+ * the day view of a popular date is answered without asking the index and
+ * without a new list. The cached lists cannot be changed and are shared by
+ * every caller that asks for the same date.
+ *
+ * The cache keeps at most capacity dates and drops the least recently used
+ * ones when it is full. Adding or deleting an event drops only the dates that
+ * event occurs on, like DayOccupancyCache.
+ *
+ * Readers that share the calendar's read lock look dates up without waiting
+ * for each other; see DayCache. Invalidation is only called while no reader
+ * is active.
+ *
+ * Programmed by: Nathan Dinh
+ *
+ * Date: 10/17/2026
+ */
+
+class DayEventsCache {
+
+	// Cached events by epoch day
+	private final DayCache<List<Event>> days;
+
+	/**
+	 * Constructor for an empty cache of at most capacity dates.
+	 *
+	 * @param capacity: the most dates to keep
+	 */
+	DayEventsCache(int capacity) {
+		this.days = new DayCache<>(capacity);
+	}
+
+	/**
+	 * Gets the events on a date, looking them up in the index the first time the
+	 * date is asked for or after it was dropped.
+	 *
+	 * @param date:  the date to look up
+	 * @param index: index to look a missing date up in
+	 * @return the events on the date, which cannot be changed
+	 */
+	List<Event> get(LocalDate date, EventStore index) {
+		return days.get(date.toEpochDay(), day -> Collections.unmodifiableList(index.eventsOn(date)));
+	}
+
+	/**
+	 * Drops the cached dates that the given event occurs on.
+	 *
+	 * @param event: the event that was added or removed
+	 */
+	void invalidate(Event event) {
+		days.invalidate(event);
+	}
+
+	/**
+	 * Removes every cached date. The counters are kept.
+	 */
+	void clear() {
+		days.clear();
+	}
+
+	/**
+	 * Gets a snapshot of the counters.
+	 *
+	 * @return the hits, misses, evictions and size of the cache
+	 */
+	CacheStats getStats() {
+		return days.getStats();
+	}
+}
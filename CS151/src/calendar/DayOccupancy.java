@@ -0,0 +1,263 @@
+package calendar;
+
+import java.time.Duration;
+import java.time.LocalTime;
+import java.util.List;
+
+/**
+ * DayOccupancy is the busy time of one day as a bitset: one bit per minute
+ * (1440 bits in 23 longs), or one bit per coarser slot such as 15 minutes (96
+ * bits). Overlap, free time and busy percentage questions are answered with
+ * masks and bit counts on whole words instead of comparing LocalTime objects
+ * event by event.
+ *
+ * A slot is busy if any event touches it, including the minute an event ends
+ * in, because the calendar counts events that only touch as overlapping (see
+ * TimeInterval.overlaps). Times with seconds are widened to whole minutes, so a
+ * "free" answer is always exact and a "busy" answer may, for times with
+ * seconds, be cautious. Events that end before they start cannot be expressed
+ * as bits; a day that has one answers every overlap question with busy, so the
+ * caller falls back to comparing the events.
+ *
+ * Instances do not change; the calendar caches them per date and drops them
+ * when the date's events change.
+ *
+ * Programmed by: Nathan Dinh
+ *
+ * Date: 10/17/2026
+ */
+
+public class DayOccupancy {
+
+	// Minutes covered by one bit, and the bits of the day
+	private final int granularity;
+	private final long[] words;
+
+	// True if the day has an event that ends before it starts
+	private final boolean hasReversedEvents;
+
+	private DayOccupancy(int granularity, long[] words, boolean hasReversedEvents) {
+		this.granularity = granularity;
+		this.words = words;
+		this.hasReversedEvents = hasReversedEvents;
+	}
+
+	/**
+	 * Builds the minute bitset of a day from the events that occur on it.
+	 *
+	 * @param events: the events of the day
+	 * @return the occupancy of the day at one minute per bit
+	 */
+	static DayOccupancy of(List<Event> events) {
+		long[] words = new long[wordsFor(MyCalendar.MINUTES_PER_DAY)];
+		boolean hasReversedEvents = false;
+		for (Event event : events) {
+			int start = floorMinute(event.getTimeInterval().getStartTime());
+			int end = ceilMinute(event.getTimeInterval().getEndTime());
+			if (start > end) {
+				hasReversedEvents = true;
+			} else {
+				setRange(words, start, end);
+			}
+		}
+		return new DayOccupancy(1, words, hasReversedEvents);
+	}
+
+	/**
+	 * Gets the same occupancy at a coarser resolution: a slot is busy if any of
+	 * its minutes is busy.
+	 *
+	 * @param minutes: minutes per slot; a multiple of the current resolution that
+	 *                 divides a day, such as 15
+	 * @return the coarser occupancy
+	 */
+	public DayOccupancy withGranularity(int minutes) {
+		if (minutes % granularity != 0 || MyCalendar.MINUTES_PER_DAY % minutes != 0) {
+			throw new IllegalArgumentException("Invalid granularity: " + minutes);
+		}
+		int factor = minutes / granularity;
+		int slots = MyCalendar.MINUTES_PER_DAY / minutes;
+		long[] coarse = new long[wordsFor(slots)];
+		for (int slot = 0; slot < slots; slot++) {
+			if (countRange(words, slot * factor, slot * factor + factor - 1) > 0) {
+				coarse[slot >> 6] |= 1L << slot;
+			}
+		}
+		return new DayOccupancy(minutes, coarse, hasReversedEvents);
+	}
+
+	/**
+	 * Gets the number of minutes each bit covers.
+	 *
+	 * @return the resolution in minutes
+	 */
+	public int getGranularity() {
+		return granularity;
+	}
+
+	/**
+	 * Checks if a time span is free of events, with the same meaning as
+	 * TimeInterval.overlaps: touching an event counts as a conflict.
+	 *
+	 * @param start: start of the span
+	 * @param end:   end of the span
+	 * @return true if no event overlaps the span, false if one might
+	 */
+	public boolean isFree(LocalTime start, LocalTime end) {
+		if (hasReversedEvents) {
+			return false;
+		}
+		return countRange(words, slotOf(floorMinute(start)), slotOf(ceilMinute(end))) == 0;
+	}
+
+	/**
+	 * Gets the busy minutes between two times of the day (inclusive), counted in
+	 * whole slots.
+	 *
+	 * @param from: first time
+	 * @param to:   last time
+	 * @return the number of busy minutes
+	 */
+	public int busyMinutes(LocalTime from, LocalTime to) {
+		return countRange(words, slotOf(floorMinute(from)), slotOf(ceilMinute(to))) * granularity;
+	}
+
+	/**
+	 * Gets the free minutes between two times of the day (inclusive), counted in
+	 * whole slots.
+	 *
+	 * @param from: first time
+	 * @param to:   last time
+	 * @return the number of free minutes
+	 */
+	public int freeMinutes(LocalTime from, LocalTime to) {
+		int first = slotOf(floorMinute(from));
+		int last = slotOf(ceilMinute(to));
+		return (last - first + 1 - countRange(words, first, last)) * granularity;
+	}
+
+	/**
+	 * Gets the share of the time between two times of the day that is busy.
+	 *
+	 * @param from: first time
+	 * @param to:   last time
+	 * @return the busy percentage, from 0 to 100
+	 */
+	public double busyPercentage(LocalTime from, LocalTime to) {
+		int first = slotOf(floorMinute(from));
+		int last = slotOf(ceilMinute(to));
+		return 100.0 * countRange(words, first, last) / (last - first + 1);
+	}
+
+	/**
+	 * Finds the first free span of at least the given length inside a window of
+	 * the day, skipping busy runs a word at a time.
+	 *
+	 * @param windowStart: earliest start of the span
+	 * @param windowEnd:   latest end of the span
+	 * @param length:      length of the span
+	 * @return the start of the first free span, or null if there is none
+	 */
+	public LocalTime firstFree(LocalTime windowStart, LocalTime windowEnd, Duration length) {
+		if (hasReversedEvents) {
+			return null;
+		}
+		int needed = (int) ((length.getSeconds() + 59) / 60);
+		int windowFirst = ceilMinute(windowStart);
+		int windowLast = windowEnd.toSecondOfDay() / 60;
+		int last = slotOf(windowLast);
+		int first = nextClear(slotOf(windowFirst), last);
+		while (first <= last) {
+			int busy = nextSet(first, last);
+			int runEnd = busy > last ? last : busy - 1;
+
+			// The free run covers its slots from the first minute to the last, cut to
+			// the window
+			int startMinute = Math.max(first * granularity, windowFirst);
+			int endMinute = Math.min(runEnd * granularity + granularity - 1, windowLast);
+			if (endMinute - startMinute >= needed) {
+				return LocalTime.of(startMinute / 60, startMinute % 60);
+			}
+			first = nextClear(runEnd + 1, last);
+		}
+		return null;
+	}
+
+	private int slotOf(int minute) {
+		return Math.min(minute, MyCalendar.MINUTES_PER_DAY - 1) / granularity;
+	}
+
+	/**
+	 * Finds the first clear bit at or after from, or a value past last if none.
+	 */
+	private int nextClear(int from, int last) {
+		for (int i = from; i <= last;) {
+			long clear = ~words[i >> 6] & (-1L << i);
+			if (clear != 0) {
+				return Math.min((i & ~63) + Long.numberOfTrailingZeros(clear), last + 1);
+			}
+			i = (i & ~63) + 64;
+		}
+		return last + 1;
+	}
+
+	/**
+	 * Finds the first set bit at or after from, or a value past last if none.
+	 */
+	private int nextSet(int from, int last) {
+		for (int i = from; i <= last;) {
+			long set = words[i >> 6] & (-1L << i);
+			if (set != 0) {
+				return Math.min((i & ~63) + Long.numberOfTrailingZeros(set), last + 1);
+			}
+			i = (i & ~63) + 64;
+		}
+		return last + 1;
+	}
+
+	/**
+	 * Sets the bits first to last (inclusive) a word at a time.
+	 */
+	private static void setRange(long[] words, int first, int last) {
+		for (int word = first >> 6; word <= last >> 6; word++) {
+			words[word] |= wordMask(word, first, last);
+		}
+	}
+
+	/**
+	 * Counts the set bits first to last (inclusive) a word at a time.
+	 */
+	private static int countRange(long[] words, int first, int last) {
+		int count = 0;
+		for (int word = first >> 6; word <= last >> 6; word++) {
+			count += Long.bitCount(words[word] & wordMask(word, first, last));
+		}
+		return count;
+	}
+
+	/**
+	 * Gets the bits of one word that lie between first and last (inclusive).
+	 */
+	private static long wordMask(int word, int first, int last) {
+		long mask = -1L;
+		if (first > word << 6) {
+			mask &= -1L << first;
+		}
+		if (last < (word << 6) + 63) {
+			mask &= -1L >>> (63 - (last & 63));
+		}
+		return mask;
+	}
+
+	private static int wordsFor(int bits) {
+		return (bits + 63) >> 6;
+	}
+
+	private static int floorMinute(LocalTime time) {
+		return time.toSecondOfDay() / 60;
+	}
+
+	private static int ceilMinute(LocalTime time) {
+		return Math.min((time.toSecondOfDay() + 59) / 60, MyCalendar.MINUTES_PER_DAY - 1);
+	}
+}
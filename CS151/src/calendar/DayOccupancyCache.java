@@ -0,0 +1,61 @@
+package calendar;
+
+import java.time.LocalDate;
+
+/**
+ * DayOccupancyCache remembers the minute bitset of the most recently asked for
+ * dates. Adding or deleting an event only drops the dates that event occurs on,
+ * so the other dates keep their bitsets.
+ *
+ * The cache keeps at most capacity dates and drops the least recently used
+ * ones when it is full, like DayEventsCache; see DayCache. Several readers may
+ * fill the cache at the same time; invalidation is only called while no reader
+ * is active.
+ *
+ * Programmed by: Nathan Dinh
+ *
+ * Date: 10/17/2026
+ */
+
+class DayOccupancyCache {
+
+	// Cached bitsets by epoch day
+	private final DayCache<DayOccupancy> days;
+
+	/**
+	 * Constructor for an empty cache of at most capacity dates.
+	 *
+	 * @param capacity: the most dates to keep
+	 */
+	DayOccupancyCache(int capacity) {
+		this.days = new DayCache<>(capacity);
+	}
+
+	/**
+	 * Gets the occupancy of a date, building it from the index the first time the
+	 * date is asked for or after it was dropped.
+	 *
+	 * @param date:  the date to look up
+	 * @param index: index to build a missing date from
+	 * @return the minute occupancy of the date
+	 */
+	DayOccupancy get(LocalDate date, EventStore index) {
+		return days.get(date.toEpochDay(), day -> DayOccupancy.of(index.eventsOn(date)));
+	}
+
+	/**
+	 * Drops the cached dates that the given event occurs on.
+	 *
+	 * @param event: the event that was added or removed
+	 */
+	void invalidate(Event event) {
+		days.invalidate(event);
+	}
+
+	/**
+	 * Removes every cached date.
+	 */
+	void clear() {
+		days.clear();
+	}
+}
@@ -6,6 +6,12 @@ import java.time.LocalDate;
 /**
  * The Event class represents an one-time and recurring events in the calendar.
  * 
+ * A calendar files an event by its dates, days and name when it is added, and
+ * caches what it finds on each day. Changing an event that is already in a
+ * calendar through its setters leaves it filed under the old values, so lookups
+ * and cached views go wrong; remove the event, change it, and add it again
+ * instead. The recurring days are copied in and out, so the array given or
+ * returned cannot change the event.
  * 
  * Programmed by: Nathan Dinh
  * 
@@ -23,6 +29,14 @@ public class Event {
 	private LocalDate startDate; // For recurring events
 	private LocalDate endDate; // For recurring events
 
+	// Packed copy of the dates and days above for fast occursOn checks
+	private long firstEpochDay; // First day the event can occur on
+	private long lastEpochDay; // Last day the event can occur on
+	private int dayMask; // Bit (DayOfWeek value - 1) set for each day it occurs on
+
+	// Day mask of an event that can occur on any day of the week
+	static final int ALL_DAYS = 0x7F;
+
 	/**
 	 * Constructor for one-time events.
 	 * 
@@ -33,6 +47,7 @@ public class Event {
 		this.name = name;
 		this.timeInterval = timeInterval;
 		this.isRecurring = false;
+		refreshPackedDays();
 	}
 
 	/**
@@ -49,9 +64,10 @@ public class Event {
 		this.name = name;
 		this.timeInterval = timeInterval;
 		this.isRecurring = true;
-		this.recurringDays = recurringDays;
+		this.recurringDays = recurringDays == null ? null : recurringDays.clone();
 		this.startDate = startDate;
 		this.endDate = endDate;
+		refreshPackedDays();
 	}
 
 	/**
@@ -88,6 +104,7 @@ public class Event {
 	 */
 	public void setTimeInterval(TimeInterval timeInterval) {
 		this.timeInterval = timeInterval;
+		refreshPackedDays();
 	}
 
 	/**
@@ -106,15 +123,34 @@ public class Event {
 	 */
 	public void setRecurring(boolean isRecurring) {
 		this.isRecurring = isRecurring;
+		refreshPackedDays();
 	}
 
 	/**
 	 * Gets the days on which the recurring event occurs.
 	 * 
-	 * @return an array of DayOfWeek objects of the recurring days
+	 * @return a copy of the array of DayOfWeek objects of the recurring days
 	 */
 	public DayOfWeek[] getRecurringDays() {
-		return recurringDays;
+		return recurringDays == null ? null : recurringDays.clone();
+	}
+
+	/**
+	 * Checks if a day is one of the recurring days, by looping over them without
+	 * copying the array.
+	 * 
+	 * @param day: the day to look for
+	 * @return true if the day is one of the recurring days, false otherwise
+	 */
+	boolean hasRecurringDay(DayOfWeek day) {
+		if (recurringDays != null) {
+			for (DayOfWeek recurringDay : recurringDays) {
+				if (recurringDay == day) {
+					return true;
+				}
+			}
+		}
+		return false;
 	}
 
 	/**
@@ -123,7 +159,8 @@ public class Event {
 	 * @param recurringDays: an array of DayOfWeek objects of the new recurring days
 	 */
 	public void setRecurringDays(DayOfWeek[] recurringDays) {
-		this.recurringDays = recurringDays;
+		this.recurringDays = recurringDays == null ? null : recurringDays.clone();
+		refreshPackedDays();
 	}
 
 	/**
@@ -142,6 +179,7 @@ public class Event {
 	 */
 	public void setStartDate(LocalDate startDate) {
 		this.startDate = startDate;
+		refreshPackedDays();
 	}
 
 	/**
@@ -160,25 +198,103 @@ public class Event {
 	 */
 	public void setEndDate(LocalDate endDate) {
 		this.endDate = endDate;
+		refreshPackedDays();
+	}
+
+	/**
+	 * Gets the days of the week the event occurs on as a bit mask, with bit
+	 * (DayOfWeek value - 1) set for each day. One-time events use all seven bits.
+	 * 
+	 * @return the day mask of the event
+	 */
+	int getDayMask() {
+		return dayMask;
+	}
+
+	/**
+	 * Gets the first day the event can occur on, counted in days since 1970-01-01.
+	 * 
+	 * @return the first epoch day of the event
+	 */
+	long getFirstEpochDay() {
+		return firstEpochDay;
 	}
 
-	// Additional methods, like checking if an event falls on a given date for
-	// recurring events
+	/**
+	 * Gets the last day the event can occur on, counted in days since 1970-01-01.
+	 * 
+	 * @return the last epoch day of the event
+	 */
+	long getLastEpochDay() {
+		return lastEpochDay;
+	}
+
+	/**
+	 * Checks if the event falls on a given date.
+	 * 
+	 * @param date: the date to check
+	 * @return true if the event occurs on the date, false otherwise
+	 */
 	public boolean occursOn(LocalDate date) {
-		if (isRecurring) {
-			// Check if the event is within the start and end date and falls on the same day
-			// of the week
-			if (!date.isBefore(startDate) && !date.isAfter(endDate)) {
-				for (DayOfWeek day : recurringDays) {
-					if (date.getDayOfWeek() == day) {
-						return true;
-					}
-				}
+		return occursOn(date.toEpochDay());
+	}
+
+	/**
+	 * Checks if the event falls on a given day, counted in days since 1970-01-01.
+	 * This is one range check and one bit test, with no date objects involved.
+	 * 
+	 * @param epochDay: the day to check
+	 * @return true if the event occurs on the day, false otherwise
+	 */
+	boolean occursOn(long epochDay) {
+		return epochDay >= firstEpochDay && epochDay <= lastEpochDay && (dayMask & dayBit(epochDay)) != 0;
+	}
+
+	/**
+	 * Gets the day mask bit for the day of the week of an epoch day.
+	 * 
+	 * @param epochDay: the day, counted in days since 1970-01-01
+	 * @return the bit of its day of the week
+	 */
+	static int dayBit(long epochDay) {
+		// 1970-01-01 was a Thursday, which is bit 3
+		return 1 << (int) Math.floorMod(epochDay + 3, 7L);
+	}
+
+	/**
+	 * Converts an array of days of the week to a day mask.
+	 * 
+	 * @param days: the days of the week
+	 * @return the day mask with one bit set per day
+	 */
+	static int dayMaskOf(DayOfWeek[] days) {
+		int mask = 0;
+		if (days != null) {
+			for (DayOfWeek day : days) {
+				mask |= 1 << (day.getValue() - 1);
 			}
-			return false;
+		}
+		return mask;
+	}
+
+	/**
+	 * Recomputes the packed epoch days and day mask from the event's fields.
+	 * Called whenever one of those fields changes.
+	 */
+	private void refreshPackedDays() {
+		if (isRecurring) {
+			dayMask = dayMaskOf(recurringDays);
+			firstEpochDay = startDate == null ? Long.MAX_VALUE : startDate.toEpochDay();
+			lastEpochDay = endDate == null ? Long.MIN_VALUE : endDate.toEpochDay();
+		} else if (timeInterval != null && timeInterval.getStartDate() != null) {
+			// A one-time event occurs on the start date of its interval only
+			dayMask = ALL_DAYS;
+			firstEpochDay = timeInterval.getStartDate().toEpochDay();
+			lastEpochDay = firstEpochDay;
 		} else {
-			// For one-time events, just check if the date matches the event's date
-			return timeInterval.getStartDate().equals(date);
+			dayMask = 0;
+			firstEpochDay = Long.MAX_VALUE;
+			lastEpochDay = Long.MIN_VALUE;
 		}
 	}
 }
@@ -0,0 +1,364 @@
+package calendar;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * EventDeltaFile saves a calendar as a base file in the text format of
+ * saveEventsToFile plus a delta file next to it (name.delta) that lists the
+ * events added and removed since the base was written. Saving the changes of
+ * a session appends one segment to the delta, so it costs as much as the
+ * changes, not the calendar; merging applies the delta to the base and
+ * replaces the base in one rename.
+ *
+ * The delta is text:
+ *
+ * <pre>
+ * #base 1c291ca3        CRC32 of the base file the delta applies to
+ * #begin                start of a segment
+ * + Meeting             an added event: its name, then its time line
+ * 2024-03-04 10:00 11:00
+ * - Lunch               a removed event, written the same way
+ * 2024-03-05 12:00 13:00
+ * #end                  the segment is complete
+ * </pre>
+ *
+ * A segment without its #end line (from a crash mid-save) is ignored. A delta
+ * whose checksum does not match the base was left behind by a crash after the
+ * base was replaced, and is dropped. Removing an event that appears several
+ * times removes one copy; copies are identical, so which one does not matter.
+ *
+ * Programmed by: Nathan Dinh
+ *
+ * Date: 10/17/2026
+ */
+
+class EventDeltaFile {
+
+	/**
+	 * Changes to a base file, as event records: the records added after it, and
+	 * how many copies of each of its records were removed. Removing a record that
+	 * was added after the base takes back the addition.
+	 */
+	static final class Changes {
+		private final List<String> added = new ArrayList<>();
+		private final Map<String, Integer> addedCounts = new HashMap<>();
+		private final Map<String, Integer> removed = new LinkedHashMap<>();
+		private int count;
+
+		/**
+		 * Records an added event.
+		 *
+		 * @param record: the event as saveEventsToFile writes it
+		 */
+		void add(String record) {
+			added.add(record);
+			addedCounts.merge(record, 1, Integer::sum);
+			count++;
+		}
+
+		/**
+		 * Records a removed event.
+		 *
+		 * @param record: the event as saveEventsToFile writes it
+		 */
+		void remove(String record) {
+			Integer copies = addedCounts.get(record);
+			if (copies != null) {
+				// Later copies are the likelier ones to go, so search from the end
+				added.remove(added.lastIndexOf(record));
+				if (copies == 1) {
+					addedCounts.remove(record);
+				} else {
+					addedCounts.put(record, copies - 1);
+				}
+			} else {
+				removed.merge(record, 1, Integer::sum);
+			}
+			count++;
+		}
+
+		/**
+		 * Gets the number of additions and removals recorded, including ones that
+		 * canceled out.
+		 *
+		 * @return the number of changes
+		 */
+		int size() {
+			return count;
+		}
+
+		boolean isEmpty() {
+			return added.isEmpty() && removed.isEmpty();
+		}
+
+		void clear() {
+			added.clear();
+			addedCounts.clear();
+			removed.clear();
+			count = 0;
+		}
+	}
+
+	private static final String BASE = "#base ";
+	private static final String BEGIN = "#begin";
+	private static final String END = "#end";
+	private static final String ADDED = "+ ";
+	private static final String REMOVED = "- ";
+
+	// Line separator saveEventsToFile writes after each event
+	private static final String NEWLINE = System.lineSeparator();
+
+	private final Path base;
+	private final Path delta;
+
+	// CRC32 of the base as last written or read
+	private long baseChecksum;
+
+	/**
+	 * Constructor for the base file at the given path and its delta. Nothing is
+	 * read until writeBase or merge is called.
+	 *
+	 * @param base: path of the base file
+	 */
+	EventDeltaFile(Path base) {
+		this.base = base;
+		this.delta = base.resolveSibling(base.getFileName() + ".delta");
+	}
+
+	Path getBase() {
+		return base;
+	}
+
+	/**
+	 * Replaces the base with the given events and drops the delta.
+	 *
+	 * @param events: the events to write
+	 * @param format: the record of an event
+	 * @throws IOException if the base cannot be written
+	 */
+	synchronized void writeBase(Collection<Event> events, Function<Event, String> format) throws IOException {
+		replaceBase(events.stream().map(format).iterator());
+	}
+
+	/**
+	 * Takes over a base and delta written by an earlier session. They are taken
+	 * over only if the base with the delta applied holds exactly the given
+	 * events, in order; later changes can then be appended to the delta as
+	 * usual. Nothing is written.
+	 *
+	 * @param events: the events the files should hold
+	 * @param format: the record of an event
+	 * @return true if the files hold the events, false if they do not or there
+	 *         is no base
+	 * @throws IOException if the files cannot be read
+	 */
+	synchronized boolean adopt(Collection<Event> events, Function<Event, String> format) throws IOException {
+		if (!Files.exists(base)) {
+			return false;
+		}
+		List<String> records = readBase();
+		Changes changes = readDelta();
+		if (changes != null) {
+			records = apply(records, changes);
+		}
+		if (records.size() != events.size()) {
+			return false;
+		}
+		Iterator<String> saved = records.iterator();
+		for (Event event : events) {
+			if (!saved.next().equals(format.apply(event))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Appends the changes to the delta as one segment and forces them to disk.
+	 *
+	 * @param changes: the changes since the last segment
+	 * @return the number of bytes appended
+	 * @throws IOException if the delta cannot be written
+	 */
+	synchronized long append(Changes changes) throws IOException {
+		if (changes.isEmpty()) {
+			return 0;
+		}
+		StringBuilder text = new StringBuilder();
+		if (!Files.exists(delta) || Files.size(delta) == 0) {
+			text.append(BASE).append(Long.toHexString(baseChecksum)).append(NEWLINE);
+		} else {
+			// Ends a line torn by a crash, so it cannot run into this segment
+			text.append(NEWLINE);
+		}
+		text.append(BEGIN).append(NEWLINE);
+		for (Map.Entry<String, Integer> entry : changes.removed.entrySet()) {
+			for (int i = 0; i < entry.getValue(); i++) {
+				text.append(REMOVED).append(entry.getKey()).append(NEWLINE);
+			}
+		}
+		for (String record : changes.added) {
+			text.append(ADDED).append(record).append(NEWLINE);
+		}
+		text.append(END).append(NEWLINE);
+
+		byte[] bytes = text.toString().getBytes(StandardCharsets.UTF_8);
+		try (FileOutputStream out = new FileOutputStream(delta.toFile(), true)) {
+			out.write(bytes);
+			out.getChannel().force(false);
+		}
+		return bytes.length;
+	}
+
+	/**
+	 * Applies the delta to the base, writing the new base to a temporary file
+	 * and renaming it over the old one, then drops the delta.
+	 *
+	 * @return true if there was a delta to merge
+	 * @throws IOException if the files cannot be read or written
+	 */
+	synchronized boolean merge() throws IOException {
+		if (!Files.exists(delta)) {
+			return false;
+		}
+		List<String> records = readBase();
+		Changes changes = readDelta();
+		if (changes == null) {
+			return false;
+		}
+		replaceBase(apply(records, changes).iterator());
+		return true;
+	}
+
+	/**
+	 * Reads the records of the base and its checksum.
+	 */
+	private List<String> readBase() throws IOException {
+		List<String> records = new ArrayList<>();
+		CRC32 crc = new CRC32();
+		try (BufferedReader in = new BufferedReader(new InputStreamReader(
+				new CheckedInputStream(Files.newInputStream(base), crc), StandardCharsets.UTF_8))) {
+			String name;
+			while ((name = in.readLine()) != null) {
+				String line = in.readLine();
+				records.add(line == null ? name : name + "\n" + line);
+			}
+		}
+		baseChecksum = crc.getValue();
+		return records;
+	}
+
+	/**
+	 * Reads the complete segments of the delta.
+	 *
+	 * @return the changes, or null if there is no delta or it belongs to another
+	 *         base, in which case it is deleted
+	 */
+	private Changes readDelta() throws IOException {
+		if (!Files.exists(delta)) {
+			return null;
+		}
+		Changes changes = new Changes();
+		List<String> segment = new ArrayList<>();
+		try (BufferedReader in = Files.newBufferedReader(delta, StandardCharsets.UTF_8)) {
+			String header = in.readLine();
+			if (header == null || !header.equals(BASE + Long.toHexString(baseChecksum))) {
+				Files.delete(delta);
+				return null;
+			}
+			String line;
+			while ((line = in.readLine()) != null) {
+				if (line.equals(BEGIN)) {
+					segment.clear();
+				} else if (line.equals(END)) {
+					for (String change : segment) {
+						if (change.startsWith(ADDED)) {
+							changes.add(change.substring(ADDED.length()));
+						} else {
+							changes.remove(change.substring(REMOVED.length()));
+						}
+					}
+					segment.clear();
+				} else if (line.startsWith(ADDED) || line.startsWith(REMOVED)) {
+					// The time line follows, unless the segment was torn here
+					in.mark(8192);
+					String timeLine = in.readLine();
+					if (timeLine == null || timeLine.startsWith("#")) {
+						in.reset();
+						segment.clear();
+					} else {
+						segment.add(line + "\n" + timeLine);
+					}
+				}
+			}
+		}
+		return changes;
+	}
+
+	/**
+	 * Applies changes to the records of the base.
+	 */
+	private static List<String> apply(List<String> records, Changes changes) {
+		Map<String, Integer> toRemove = new HashMap<>(changes.removed);
+		List<String> result = new ArrayList<>(records.size() + changes.added.size());
+		for (String record : records) {
+			Integer copies = toRemove.get(record);
+			if (copies == null) {
+				result.add(record);
+			} else if (copies == 1) {
+				toRemove.remove(record);
+			} else {
+				toRemove.put(record, copies - 1);
+			}
+		}
+		result.addAll(changes.added);
+		return result;
+	}
+
+	/**
+	 * Writes a new base next to the old one, renames it over the old one and
+	 * deletes the delta. A crash before the rename leaves the old base and delta;
+	 * a crash after it leaves a delta whose checksum no longer matches.
+	 */
+	private void replaceBase(Iterator<String> records) throws IOException {
+		Path temp = base.resolveSibling(base.getFileName() + ".tmp");
+		CRC32 crc = new CRC32();
+		try {
+			try (Writer out = new BufferedWriter(new OutputStreamWriter(
+					new CheckedOutputStream(Files.newOutputStream(temp), crc), StandardCharsets.UTF_8), 64 * 1024)) {
+				while (records.hasNext()) {
+					out.write(records.next());
+					out.write(NEWLINE);
+				}
+			}
+			Files.move(temp, base, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch (IOException | RuntimeException e) {
+			// Leave no half-written file next to the base
+			Files.deleteIfExists(temp);
+			throw e;
+		}
+		baseChecksum = crc.getValue();
+		Files.deleteIfExists(delta);
+	}
+}
@@ -0,0 +1,379 @@
+package calendar;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * EventFileReader reads the two-lines-per-event text format (name, then
+ * details) without loading the whole file or building intermediate strings.
+ * Lines are found and tokenized directly in a byte buffer, and times ("H:mm")
+ * and dates ("M/d/yy") are parsed by hand into numbers.
+ *
+ * Example records:
+ *
+ * <pre>
+ * Java Study Group
+ * TR 9:00 10:15 8/22/24 12/9/24
+ * Eye Check-up
+ * 10/3/24 16:15 17:00
+ * </pre>
+ *
+ * Programmed by: Nathan Dinh
+ *
+ * Date: 10/17/2026
+ */
+
+class EventFileReader {
+
+	// Size of the read buffer, it grows if a single line is longer
+	private static final int BUFFER_SIZE = 64 * 1024;
+
+	// Shared LocalTime objects, one per minute of the day
+	private static final LocalTime[] TIMES = new LocalTime[24 * 60];
+
+	// Dates parsed so far, keyed by year * 10000 + month * 100 + day
+	private final Map<Integer, LocalDate> dates;
+
+	// Name line waiting for its details line
+	private String pendingName;
+
+	// Number of events parsed so far
+	private long records;
+
+	/**
+	 * Default constructor for a reader with no pending record.
+	 */
+	EventFileReader() {
+		this.dates = new HashMap<>();
+	}
+
+	/**
+	 * Reads every event in a file and passes each one to the consumer in file
+	 * order.
+	 *
+	 * @param path: the file to read
+	 * @param sink: receives each parsed event
+	 * @return the number of events read
+	 * @throws IOException if the file cannot be read
+	 */
+	long read(Path path, Consumer<Event> sink) throws IOException {
+		try (InputStream in = Files.newInputStream(path)) {
+			byte[] buffer = new byte[BUFFER_SIZE];
+			int filled = 0;
+			int read;
+
+			while ((read = in.read(buffer, filled, buffer.length - filled)) > 0) {
+				filled += read;
+				int consumed = parseLines(buffer, 0, filled, false, sink);
+
+				// Keep the unfinished last line at the front of the buffer
+				filled -= consumed;
+				System.arraycopy(buffer, consumed, buffer, 0, filled);
+				if (filled == buffer.length) {
+					buffer = Arrays.copyOf(buffer, buffer.length * 2);
+				}
+			}
+			parseLines(buffer, 0, filled, true, sink);
+		}
+		finish();
+		return records;
+	}
+
+	/**
+	 * Parses the complete lines in buf[from, to) and passes finished events to the
+	 * consumer.
+	 *
+	 * @param buf:   bytes holding the lines
+	 * @param from:  index of the first byte
+	 * @param to:    index after the last byte
+	 * @param atEnd: true if the last line ends at to even without a line break
+	 * @param sink:  receives each parsed event
+	 * @return the index after the last line that was parsed
+	 */
+	int parseLines(byte[] buf, int from, int to, boolean atEnd, Consumer<Event> sink) {
+		int lineStart = from;
+		for (int i = from; i < to; i++) {
+			byte b = buf[i];
+			if (b == '\n' || b == '\r') {
+				// Treat "\r\n" as a single line break
+				if (b == '\r' && i + 1 < to && buf[i + 1] == '\n') {
+					acceptLine(buf, lineStart, i, sink);
+					i++;
+				} else if (b == '\r' && i + 1 == to && !atEnd) {
+					// The '\n' of a "\r\n" may still be on its way
+					return lineStart;
+				} else {
+					acceptLine(buf, lineStart, i, sink);
+				}
+				lineStart = i + 1;
+			}
+		}
+		if (atEnd && lineStart < to) {
+			acceptLine(buf, lineStart, to, sink);
+			lineStart = to;
+		}
+		return lineStart;
+	}
+
+	/**
+	 * Checks that the input did not stop between a name line and its details.
+	 *
+	 * @throws IllegalArgumentException if an event is missing its details line
+	 */
+	void finish() {
+		if (pendingName != null) {
+			throw new IllegalArgumentException("Missing details for event: " + pendingName);
+		}
+	}
+
+	/**
+	 * Gets the number of events parsed so far.
+	 *
+	 * @return the number of events
+	 */
+	long getRecords() {
+		return records;
+	}
+
+	/**
+	 * Handles one line: the first of a pair is the event name, the second holds
+	 * its details.
+	 */
+	private void acceptLine(byte[] buf, int start, int end, Consumer<Event> sink) {
+		// Trim the same characters String.trim removes
+		while (start < end && (buf[start] & 0xFF) <= ' ') {
+			start++;
+		}
+		while (end > start && (buf[end - 1] & 0xFF) <= ' ') {
+			end--;
+		}
+
+		if (pendingName == null) {
+			pendingName = new String(buf, start, end - start, StandardCharsets.UTF_8);
+		} else {
+			sink.accept(parseDetails(pendingName, buf, start, end));
+			pendingName = null;
+			records++;
+		}
+	}
+
+	/**
+	 * Parses a details line into an event. Recurring events start with their day
+	 * letters ("TR 9:00 10:15 8/22/24 12/9/24"), one-time events with their date
+	 * ("10/3/24 16:15 17:00").
+	 */
+	private Event parseDetails(String name, byte[] buf, int start, int end) {
+		int[] tokens = new int[10];
+		int count = tokenize(buf, start, end, tokens);
+
+		if (isRecurringEvent(buf, start, end)) {
+			if (count < 5) {
+				throw new IllegalArgumentException("Invalid recurring event details for: " + name);
+			}
+			DayOfWeek[] recurringDays = parseDays(buf, tokens[0], tokens[1]);
+			LocalTime startTime = parseTime(buf, tokens[2], tokens[3]);
+			LocalTime endTime = parseTime(buf, tokens[4], tokens[5]);
+			LocalDate startDate = parseDate(buf, tokens[6], tokens[7]);
+			LocalDate endDate = parseDate(buf, tokens[8], tokens[9]);
+
+			TimeInterval timeInterval = new TimeInterval(startDate, startTime, endDate, endTime);
+			return new Event(name, timeInterval, recurringDays, startDate, endDate);
+		}
+
+		if (count < 3) {
+			throw new IllegalArgumentException("Invalid event details for: " + name);
+		}
+		LocalDate date = parseDate(buf, tokens[0], tokens[1]);
+		LocalTime startTime = parseTime(buf, tokens[2], tokens[3]);
+		LocalTime endTime = parseTime(buf, tokens[4], tokens[5]);
+
+		TimeInterval timeInterval = new TimeInterval(date, startTime, date, endTime);
+		return new Event(name, timeInterval);
+	}
+
+	/**
+	 * Splits buf[start, end) on spaces, storing the start and end of each token in
+	 * pairs.
+	 *
+	 * @return the number of tokens found, at most tokens.length / 2
+	 */
+	private static int tokenize(byte[] buf, int start, int end, int[] tokens) {
+		int count = 0;
+		int i = start;
+		while (i < end && count * 2 < tokens.length) {
+			while (i < end && buf[i] == ' ') {
+				i++;
+			}
+			if (i == end) {
+				break;
+			}
+			tokens[count * 2] = i;
+			while (i < end && buf[i] != ' ') {
+				i++;
+			}
+			tokens[count * 2 + 1] = i;
+			count++;
+		}
+		return count;
+	}
+
+	/**
+	 * Checks if a details line belongs to a recurring event, based on a day
+	 * abbreviation (S, M, T, W, R, F, A) as its first character.
+	 */
+	private static boolean isRecurringEvent(byte[] buf, int start, int end) {
+		if (start == end) {
+			return false;
+		}
+		byte firstLetter = buf[start];
+		return (firstLetter == 'S' || firstLetter == 'M' || firstLetter == 'T' || firstLetter == 'W'
+				|| firstLetter == 'R' || firstLetter == 'F' || firstLetter == 'A');
+	}
+
+	/**
+	 * Parses day letters (example: "MW" for Monday and Wednesday) into days of the
+	 * week.
+	 */
+	private static DayOfWeek[] parseDays(byte[] buf, int start, int end) {
+		DayOfWeek[] dayArray = new DayOfWeek[end - start];
+
+		for (int i = start; i < end; i++) {
+			char c = (char) buf[i];
+			switch (c) {
+			case 'M':
+				dayArray[i - start] = DayOfWeek.MONDAY;
+				break;
+			case 'T':
+				dayArray[i - start] = DayOfWeek.TUESDAY;
+				break;
+			case 'W':
+				dayArray[i - start] = DayOfWeek.WEDNESDAY;
+				break;
+			case 'R':
+				dayArray[i - start] = DayOfWeek.THURSDAY;
+				break;
+			case 'F':
+				dayArray[i - start] = DayOfWeek.FRIDAY;
+				break;
+			case 'S':
+				dayArray[i - start] = DayOfWeek.SATURDAY;
+				break;
+			case 'U':
+				dayArray[i - start] = DayOfWeek.SUNDAY;
+				break;
+			default:
+				throw new IllegalArgumentException("Invalid day character: " + c);
+			}
+		}
+
+		return dayArray;
+	}
+
+	/**
+	 * Parses an "H:mm" time.
+	 */
+	private static LocalTime parseTime(byte[] buf, int start, int end) {
+		int colon = start;
+		while (colon < end && buf[colon] != ':') {
+			colon++;
+		}
+		if (colon == start || colon > start + 2 || end - colon != 3) {
+			throw new IllegalArgumentException("Invalid time: " + text(buf, start, end));
+		}
+		int hour = parseNumber(buf, start, colon);
+		int minute = parseNumber(buf, colon + 1, end);
+		if (hour > 23 || minute > 59) {
+			throw new IllegalArgumentException("Invalid time: " + text(buf, start, end));
+		}
+		return timeOf(hour * 60 + minute);
+	}
+
+	/**
+	 * Parses an "M/d/yy" date, where the two-digit year is in 2000 to 2099.
+	 */
+	private LocalDate parseDate(byte[] buf, int start, int end) {
+		int firstSlash = start;
+		while (firstSlash < end && buf[firstSlash] != '/') {
+			firstSlash++;
+		}
+		int secondSlash = firstSlash + 1;
+		while (secondSlash < end && buf[secondSlash] != '/') {
+			secondSlash++;
+		}
+		if (firstSlash == start || secondSlash >= end || end - secondSlash != 3) {
+			throw new IllegalArgumentException("Invalid date: " + text(buf, start, end));
+		}
+
+		int month = parseNumber(buf, start, firstSlash);
+		int day = parseNumber(buf, firstSlash + 1, secondSlash);
+		int year = 2000 + parseNumber(buf, secondSlash + 1, end);
+
+		Integer key = year * 10000 + month * 100 + day;
+		LocalDate date = dates.get(key);
+		if (date == null) {
+			date = dateOf(year, month, day, buf, start, end);
+			dates.put(key, date);
+		}
+		return date;
+	}
+
+	/**
+	 * Builds a date the way DateTimeFormatter's default (smart) resolver does: a
+	 * day past the end of a shorter month is moved back to its last day.
+	 */
+	private static LocalDate dateOf(int year, int month, int day, byte[] buf, int start, int end) {
+		if (month < 1 || month > 12 || day < 1 || day > 31) {
+			throw new IllegalArgumentException("Invalid date: " + text(buf, start, end));
+		}
+		LocalDate first = LocalDate.of(year, month, 1);
+		return first.withDayOfMonth(Math.min(day, first.lengthOfMonth()));
+	}
+
+	/**
+	 * Parses a run of decimal digits.
+	 */
+	private static int parseNumber(byte[] buf, int start, int end) {
+		if (start == end || end - start > 9) {
+			throw new IllegalArgumentException("Invalid number: " + text(buf, start, end));
+		}
+		int value = 0;
+		for (int i = start; i < end; i++) {
+			int digit = buf[i] - '0';
+			if (digit < 0 || digit > 9) {
+				throw new IllegalArgumentException("Invalid number: " + text(buf, start, end));
+			}
+			value = value * 10 + digit;
+		}
+		return value;
+	}
+
+	/**
+	 * Gets the shared LocalTime for a minute of the day.
+	 *
+	 * @param minuteOfDay: minutes since midnight (0 to 1439)
+	 * @return the time
+	 */
+	static LocalTime timeOf(int minuteOfDay) {
+		LocalTime time = TIMES[minuteOfDay];
+		if (time == null) {
+			// Racing threads may both build it, which is harmless
+			time = LocalTime.of(minuteOfDay / 60, minuteOfDay % 60);
+			TIMES[minuteOfDay] = time;
+		}
+		return time;
+	}
+
+	private static String text(byte[] buf, int start, int end) {
+		return new String(buf, start, end - start, StandardCharsets.UTF_8);
+	}
+}
@@ -0,0 +1,273 @@
+package calendar;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+
+/**
+ * EventIndex keeps the calendar's events organized by date so a day can be
+ * looked up without scanning every event. One-time events are grouped by their
+ * date, and recurring events are kept in an interval tree over their start and
+ * end dates.
+ *
+ * Results come back in the order the events were added, the same order a scan
+ * over the event list gives.
+ *
+ * Programmed by: Nathan Dinh
+ *
+ * Date: 10/17/2026
+ */
+
+class EventIndex {
+
+	/**
+	 * Where an event was filed when it was added, so it can be found again even if
+	 * its dates were changed afterwards.
+	 */
+	private static final class Key {
+		final long sequence;
+		final long day;
+
+		Key(long sequence, long day) {
+			this.sequence = sequence;
+			this.day = day;
+		}
+	}
+
+	// One-time events by epoch day, recurring events by date span
+	private final TreeMap<Long, List<Event>> oneTimeByDay;
+	private final IntervalTree<Event> recurring;
+	private final Map<Event, Key> keys;
+	private long nextSequence;
+
+	/**
+	 * Default constructor with an empty index.
+	 */
+	EventIndex() {
+		this.oneTimeByDay = new TreeMap<>();
+		this.recurring = new IntervalTree<>();
+		this.keys = new IdentityHashMap<>();
+	}
+
+	/**
+	 * Adds an event to the index. Events are filed by identity, so an event that
+	 * is already in the index cannot be added again; a copy of it can.
+	 *
+	 * @param event: the event to add
+	 * @throws IllegalArgumentException if the event is already in the index
+	 */
+	void add(Event event) {
+		if (keys.containsKey(event)) {
+			throw new IllegalArgumentException("The event " + event.getName() + " is already in the calendar");
+		}
+		long sequence = nextSequence++;
+		if (event.isRecurring()) {
+			long start = event.getStartDate().toEpochDay();
+			long end = event.getEndDate().toEpochDay();
+			recurring.insert(start, end, sequence, event);
+			keys.put(event, new Key(sequence, start));
+		} else {
+			long day = event.getTimeInterval().getStartDate().toEpochDay();
+			oneTimeByDay.computeIfAbsent(day, d -> new ArrayList<>(2)).add(event);
+			keys.put(event, new Key(sequence, day));
+		}
+	}
+
+	/**
+	 * Removes an event from the index.
+	 *
+	 * @param event: the event to remove
+	 * @return true if the event was in the index, false otherwise
+	 */
+	boolean remove(Event event) {
+		Key key = keys.remove(event);
+		if (key == null) {
+			return false;
+		}
+		if (event.isRecurring()) {
+			recurring.remove(key.day, key.sequence);
+		} else {
+			List<Event> sameDay = oneTimeByDay.get(key.day);
+			sameDay.remove(event);
+			if (sameDay.isEmpty()) {
+				oneTimeByDay.remove(key.day);
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Gets all events that occur on the given date, in the order they were added.
+	 *
+	 * @param date: the date to look up
+	 * @return a new list of events occurring on the date
+	 */
+	List<Event> eventsOn(LocalDate date) {
+		long day = date.toEpochDay();
+		List<Event> sameDay = oneTimeByDay.get(day);
+		List<Event> result = sameDay == null ? new ArrayList<>() : new ArrayList<>(sameDay);
+
+		int oneTimeCount = result.size();
+		recurring.stab(day, event -> {
+			if (event.occursOn(day)) {
+				result.add(event);
+			}
+		});
+
+		// The tree returns recurring events by start date, so put everything back in
+		// insertion order unless the result is already trivially ordered
+		int recurringCount = result.size() - oneTimeCount;
+		if (recurringCount > 1 || (recurringCount == 1 && oneTimeCount > 0)) {
+			result.sort(Comparator.comparingLong(event -> keys.get(event).sequence));
+		}
+		return result;
+	}
+
+	/**
+	 * Gets the one-time events of a range of days, grouped by day in date order.
+	 * The map is a live view of the index.
+	 *
+	 * @param fromDay: first epoch day (inclusive)
+	 * @param toDay:   last epoch day (inclusive)
+	 * @return the one-time events by epoch day
+	 */
+	NavigableMap<Long, List<Event>> oneTimeBetween(long fromDay, long toDay) {
+		return oneTimeByDay.subMap(fromDay, true, toDay, true);
+	}
+
+	/**
+	 * Passes every recurring event whose date span overlaps a range of days to the
+	 * consumer.
+	 *
+	 * @param fromDay: first epoch day (inclusive)
+	 * @param toDay:   last epoch day (inclusive)
+	 * @param action:  receives each recurring event
+	 */
+	void recurringBetween(long fromDay, long toDay, Consumer<Event> action) {
+		recurring.overlapping(fromDay, toDay, action);
+	}
+
+	/**
+	 * Gets the position of an event in the order events were added.
+	 *
+	 * @param event: an indexed event
+	 * @return its insertion sequence number
+	 */
+	long sequenceOf(Event event) {
+		return keys.get(event).sequence;
+	}
+
+	/**
+	 * Builds the occupancy bitmap of a month: bit (day - 1) is set when at least
+	 * one event occurs on that day of the month. Only the events that touch the
+	 * month are visited.
+	 *
+	 * @param month: the month to compute
+	 * @return the occupancy bitmap of the month
+	 */
+	int occupancyOf(YearMonth month) {
+		return occupancyOf(month, 1)[0];
+	}
+
+	/**
+	 * Builds the occupancy bitmaps of consecutive months in one pass: the one-time
+	 * days and the recurring events of the whole range are each visited once,
+	 * marking busy days in a bitset over the range that is then split into months.
+	 *
+	 * @param first: the first month to compute
+	 * @param count: the number of months
+	 * @return the occupancy bitmap of each month, in order
+	 * @throws IllegalArgumentException if count is less than 1
+	 */
+	int[] occupancyOf(YearMonth first, int count) {
+		if (count < 1) {
+			throw new IllegalArgumentException("The month count must be at least 1, was " + count);
+		}
+		long firstDay = first.atDay(1).toEpochDay();
+		long lastDay = first.plusMonths(count - 1).atEndOfMonth().toEpochDay();
+		long[] busy = new long[(int) ((lastDay - firstDay) >> 6) + 1];
+
+		for (long day : oneTimeByDay.subMap(firstDay, true, lastDay, true).keySet()) {
+			int offset = (int) (day - firstDay);
+			busy[offset >> 6] |= 1L << offset;
+		}
+		recurring.overlapping(firstDay, lastDay, event -> markDays(busy, firstDay,
+				Math.max(event.getFirstEpochDay(), firstDay), Math.min(event.getLastEpochDay(), lastDay),
+				event.getDayMask()));
+		return splitMonths(busy, first, count);
+	}
+
+	/**
+	 * Marks the days between from and to that fall on a day of the mask in a
+	 * bitset over a range of days. Each weekday of the mask is found in the first
+	 * week, then stepped a week at a time.
+	 *
+	 * @param busy:     bitset with bit (day - firstDay) per day
+	 * @param firstDay: epoch day of bit 0
+	 * @param from:     first epoch day to mark (inclusive)
+	 * @param to:       last epoch day to mark (inclusive)
+	 * @param dayMask:  days of the week to mark, as in Event
+	 */
+	static void markDays(long[] busy, long firstDay, long from, long to, int dayMask) {
+		for (long start = from; start <= to && start < from + 7; start++) {
+			if ((dayMask & Event.dayBit(start)) != 0) {
+				for (long day = start; day <= to; day += 7) {
+					int offset = (int) (day - firstDay);
+					busy[offset >> 6] |= 1L << offset;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Splits a bitset of busy days that starts on the first day of a month into
+	 * one occupancy bitmap per month.
+	 *
+	 * @param busy:  bitset with one bit per day from the first day of first
+	 * @param first: the first month
+	 * @param count: the number of months
+	 * @return the occupancy bitmap of each month, in order
+	 */
+	static int[] splitMonths(long[] busy, YearMonth first, int count) {
+		int[] months = new int[count];
+		int monthStart = 0;
+		for (int i = 0; i < count; i++) {
+			int length = first.plusMonths(i).lengthOfMonth();
+			int bits = 0;
+			for (int day = 0; day < length; day++) {
+				int offset = monthStart + day;
+				if ((busy[offset >> 6] & (1L << offset)) != 0) {
+					bits |= 1 << day;
+				}
+			}
+			months[i] = bits;
+			monthStart += length;
+		}
+		return months;
+	}
+
+	/**
+	 * Gets the number of indexed events.
+	 *
+	 * @return the number of events in the index
+	 */
+	int size() {
+		return keys.size();
+	}
+
+	/**
+	 * Removes every event from the index.
+	 */
+	void clear() {
+		oneTimeByDay.clear();
+		recurring.clear();
+		keys.clear();
+	}
+}
@@ -0,0 +1,331 @@
+package calendar;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * EventJournal is an append-only log of the events added to and removed from a
+ * calendar. Each change is written as it happens and flushed to disk in
+ * batches, so a crash only loses the changes of the last unfinished batch
+ * instead of the whole session. A background thread also flushes whatever is
+ * pending once per maximum delay, so an entry never waits longer than that,
+ * even when no more changes follow it. On startup the journal is replayed on
+ * top of the last snapshot.
+ *
+ * The journal may be used from one thread at a time besides its flushing
+ * thread; its methods lock the journal against that thread.
+ *
+ * Every entry is stored as its length, its bytes and a CRC32 checksum. Entries
+ * carry increasing sequence numbers so that entries already included in a
+ * snapshot are skipped on replay, and a torn entry at the end of the file
+ * (from a crash mid-write) ends the replay and is cut off.
+ *
+ * Programmed by: Nathan Dinh
+ *
+ * Date: 10/17/2026
+ */
+
+class EventJournal implements AutoCloseable {
+
+	// Entry types
+	static final byte ADD = 1;
+	static final byte REMOVE = 2;
+
+	private static final int FLAG_RECURRING = 1;
+
+	// Largest entry accepted on replay, anything bigger is treated as corrupt
+	private static final int MAX_ENTRY_SIZE = 1024 * 1024;
+
+	private final Path path;
+	private final int batchSize;
+	private FileOutputStream file;
+	private DataOutputStream out;
+
+	// Reused buffer for encoding one entry
+	private final ByteArrayOutputStream entryBytes;
+	private final DataOutputStream entry;
+	private final CRC32 crc;
+
+	private long sequence;
+	private int pending;
+	private int entries;
+
+	// Thread flushing the pending entries once per maximum delay
+	private final ScheduledExecutorService flusher;
+
+	private EventJournal(Path path, long lastSequence, int batchSize, Duration maxDelay) throws IOException {
+		this.path = path;
+		this.batchSize = batchSize;
+		this.sequence = lastSequence;
+		this.entryBytes = new ByteArrayOutputStream(128);
+		this.entry = new DataOutputStream(entryBytes);
+		this.crc = new CRC32();
+		open(true);
+
+		this.flusher = Executors.newSingleThreadScheduledExecutor(task -> {
+			Thread thread = new Thread(task, "calendar-journal");
+			thread.setDaemon(true);
+			return thread;
+		});
+		long millis = Math.max(1, maxDelay.toMillis());
+		flusher.scheduleWithFixedDelay(this::flushPending, millis, millis, TimeUnit.MILLISECONDS);
+	}
+
+	private void open(boolean append) throws IOException {
+		file = new FileOutputStream(path.toFile(), append);
+		out = new DataOutputStream(new BufferedOutputStream(file, 64 * 1024));
+	}
+
+	/**
+	 * Appends one change to the journal, flushing when a batch is full.
+	 *
+	 * @param type:  ADD or REMOVE
+	 * @param event: the event that was added or removed
+	 * @throws IOException if the journal cannot be written
+	 */
+	synchronized void append(byte type, Event event) throws IOException {
+		entryBytes.reset();
+		entry.writeLong(++sequence);
+		entry.writeByte(type);
+		writeEvent(entry, event);
+
+		crc.reset();
+		crc.update(entryBytes.toByteArray(), 0, entryBytes.size());
+		out.writeInt(entryBytes.size());
+		entryBytes.writeTo(out);
+		out.writeInt((int) crc.getValue());
+
+		entries++;
+		if (++pending >= batchSize) {
+			flush();
+		}
+	}
+
+	/**
+	 * Writes the pending entries through to the disk.
+	 *
+	 * @throws IOException if the journal cannot be written
+	 */
+	synchronized void flush() throws IOException {
+		if (pending == 0) {
+			return;
+		}
+		out.flush();
+		file.getChannel().force(false);
+		pending = 0;
+	}
+
+	/**
+	 * Flushes on the background thread, reporting a failure instead of throwing
+	 * it into the scheduler, which would stop later flushes.
+	 */
+	private void flushPending() {
+		try {
+			flush();
+		} catch (IOException e) {
+			System.out.println("An error occurred while flushing the journal.");
+			e.printStackTrace();
+		}
+	}
+
+	/**
+	 * Empties the journal, after its entries have been saved in a snapshot.
+	 *
+	 * @throws IOException if the journal cannot be truncated
+	 */
+	synchronized void truncate() throws IOException {
+		out.close();
+		open(false);
+		entries = 0;
+		pending = 0;
+	}
+
+	/**
+	 * Gets the sequence number of the last entry written.
+	 *
+	 * @return the last sequence number
+	 */
+	synchronized long getSequence() {
+		return sequence;
+	}
+
+	/**
+	 * Gets the number of entries written since the journal was opened or last
+	 * truncated.
+	 *
+	 * @return the number of entries
+	 */
+	synchronized int getEntries() {
+		return entries;
+	}
+
+	/**
+	 * Stops the background flushes, then flushes and closes the journal.
+	 *
+	 * @throws IOException if the journal cannot be written
+	 */
+	@Override
+	public void close() throws IOException {
+		flusher.shutdown();
+		synchronized (this) {
+			flush();
+			out.close();
+		}
+	}
+
+	/**
+	 * Replays a journal file and opens it for appending. Every entry newer than
+	 * afterSequence is passed to the matching consumer in the order it was
+	 * written. A torn entry left at the end by a crash is cut off, so new entries
+	 * follow the last good one. A missing file is created empty.
+	 *
+	 * @param path:          the journal file
+	 * @param afterSequence: entries up to this sequence number are skipped
+	 * @param batchSize:     number of entries to collect before flushing to disk
+	 * @param maxDelay:      longest time an entry waits before it is flushed
+	 * @param onAdd:         receives each added event
+	 * @param onRemove:      receives each removed event
+	 * @return the journal, ready for new entries
+	 * @throws IOException if the file cannot be read or written
+	 */
+	static EventJournal open(Path path, long afterSequence, int batchSize, Duration maxDelay,
+			Consumer<Event> onAdd, Consumer<Event> onRemove) throws IOException {
+		long last = afterSequence;
+		long validLength = 0;
+
+		if (Files.exists(path)) {
+			CRC32 crc = new CRC32();
+			try (InputStream file = Files.newInputStream(path);
+					DataInputStream in = new DataInputStream(new BufferedInputStream(file, 64 * 1024))) {
+				while (true) {
+					byte[] bytes;
+					try {
+						int length = in.readInt();
+						if (length <= 0 || length > MAX_ENTRY_SIZE) {
+							break;
+						}
+						bytes = new byte[length];
+						in.readFully(bytes);
+						crc.reset();
+						crc.update(bytes, 0, length);
+						if (in.readInt() != (int) crc.getValue()) {
+							break;
+						}
+					} catch (EOFException e) {
+						// Torn entry at the end of the file
+						break;
+					}
+					validLength += 4 + bytes.length + 4;
+
+					DataInputStream entry = new DataInputStream(new ByteArrayInputStream(bytes));
+					long sequence = entry.readLong();
+					byte type = entry.readByte();
+					Event event = readEvent(entry);
+					last = Math.max(last, sequence);
+					if (sequence <= afterSequence) {
+						continue;
+					}
+					if (type == ADD) {
+						onAdd.accept(event);
+					} else if (type == REMOVE) {
+						onRemove.accept(event);
+					}
+				}
+			}
+
+			// Drop whatever follows the last good entry
+			try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+				if (channel.size() > validLength) {
+					channel.truncate(validLength);
+				}
+			}
+		}
+		return new EventJournal(path, last, batchSize, maxDelay);
+	}
+
+	/**
+	 * Checks if two events have the same values as far as the journal stores them,
+	 * which is how a removed event is found again on replay.
+	 *
+	 * @param a: an event
+	 * @param b: another event
+	 * @return true if the events match, false otherwise
+	 */
+	static boolean matches(Event a, Event b) {
+		TimeInterval x = a.getTimeInterval();
+		TimeInterval y = b.getTimeInterval();
+		return a.isRecurring() == b.isRecurring() && a.getName().equals(b.getName())
+				&& x.getStartDate().equals(y.getStartDate()) && x.getEndDate().equals(y.getEndDate())
+				&& EventSnapshot.minuteOfDay(x.getStartTime()) == EventSnapshot.minuteOfDay(y.getStartTime())
+				&& EventSnapshot.minuteOfDay(x.getEndTime()) == EventSnapshot.minuteOfDay(y.getEndTime())
+				&& a.getFirstEpochDay() == b.getFirstEpochDay() && a.getLastEpochDay() == b.getLastEpochDay()
+				&& a.getDayMask() == b.getDayMask();
+	}
+
+	private static void writeEvent(DataOutputStream out, Event event) throws IOException {
+		TimeInterval timeInterval = event.getTimeInterval();
+		byte[] name = event.getName().getBytes(StandardCharsets.UTF_8);
+		out.writeInt(name.length);
+		out.write(name);
+		out.writeInt((int) timeInterval.getStartDate().toEpochDay());
+		out.writeInt((int) timeInterval.getEndDate().toEpochDay());
+		out.writeShort(EventSnapshot.minuteOfDay(timeInterval.getStartTime()));
+		out.writeShort(EventSnapshot.minuteOfDay(timeInterval.getEndTime()));
+		if (event.isRecurring()) {
+			out.writeByte(FLAG_RECURRING);
+			out.writeInt((int) event.getStartDate().toEpochDay());
+			out.writeInt((int) event.getEndDate().toEpochDay());
+			out.writeByte(event.getDayMask());
+		} else {
+			out.writeByte(0);
+		}
+	}
+
+	private static Event readEvent(DataInputStream in) throws IOException {
+		int nameLength = in.readInt();
+		if (nameLength < 0 || nameLength > in.available()) {
+			throw new IOException("Corrupt journal entry: name length " + nameLength);
+		}
+		byte[] name = new byte[nameLength];
+		in.readFully(name);
+		LocalDate startDate = LocalDate.ofEpochDay(in.readInt());
+		LocalDate endDate = LocalDate.ofEpochDay(in.readInt());
+		short startMinute = in.readShort();
+		short endMinute = in.readShort();
+		if (!EventSnapshot.isMinuteOfDay(startMinute) || !EventSnapshot.isMinuteOfDay(endMinute)) {
+			throw new IOException("Corrupt journal entry: time out of range");
+		}
+		LocalTime startTime = EventFileReader.timeOf(startMinute);
+		LocalTime endTime = EventFileReader.timeOf(endMinute);
+		TimeInterval timeInterval = new TimeInterval(startDate, startTime, endDate, endTime);
+
+		String eventName = new String(name, StandardCharsets.UTF_8);
+		if ((in.readByte() & FLAG_RECURRING) == 0) {
+			return new Event(eventName, timeInterval);
+		}
+		LocalDate recurringStart = LocalDate.ofEpochDay(in.readInt());
+		LocalDate recurringEnd = LocalDate.ofEpochDay(in.readInt());
+		return new Event(eventName, timeInterval, EventSnapshot.daysOf(in.readByte()), recurringStart, recurringEnd);
+	}
+}
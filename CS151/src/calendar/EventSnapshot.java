@@ -0,0 +1,436 @@
+package calendar;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * EventSnapshot is a compact binary copy of a calendar's events. Names are
+ * stored once in a string table, and every event is a fixed-size record of
+ * epoch days, minutes of the day and a day mask, so a snapshot can be
+ * memory-mapped and its events decoded one at a time on demand.
+ *
+ * Layout (big-endian):
+ *
+ * <pre>
+ * header   magic "CBSN", version, event count, name count, journal sequence
+ * records  one RECORD_SIZE record per event, in calendar order
+ * offsets  name count + 1 ints, the start of each name in the name bytes
+ * names    UTF-8 bytes of all names
+ * </pre>
+ *
+ * The journal sequence is the last EventJournal entry already included in the
+ * snapshot.
+ *
+ * Times are stored to the minute and recurring days as a mask, so days come
+ * back in Monday-first order.
+ *
+ * Opening a snapshot checks every name id, time and name offset against the
+ * file, so a damaged file is reported as an IOException up front instead of
+ * failing while its events are decoded.
+ *
+ * Programmed by: Nathan Dinh
+ *
+ * Date: 10/17/2026
+ */
+
+class EventSnapshot {
+
+	// "CBSN" in ASCII
+	private static final int MAGIC = 0x4342534E;
+	private static final int VERSION = 2;
+	private static final int HEADER_SIZE = 24;
+
+	// nameId, interval start/end day, start/end minute, recurrence start/end day,
+	// day mask, flags
+	static final int RECORD_SIZE = 4 + 4 + 4 + 2 + 2 + 4 + 4 + 1 + 1;
+
+	private static final int FLAG_RECURRING = 1;
+
+	// Mapped file and where its sections start
+	private final ByteBuffer buffer;
+	private final long journalSequence;
+	private final int eventCount;
+	private final int nameCount;
+	private final int offsetsStart;
+	private final int namesStart;
+
+	// Names decoded so far, by name id
+	private final String[] names;
+
+	private EventSnapshot(ByteBuffer buffer) throws IOException {
+		this.buffer = buffer;
+		if (buffer.limit() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+			throw new IOException("Not an event snapshot");
+		}
+		int version = buffer.getInt(4);
+		if (version != VERSION) {
+			throw new IOException("Unsupported event snapshot version: " + version);
+		}
+		this.eventCount = buffer.getInt(8);
+		this.nameCount = buffer.getInt(12);
+		this.journalSequence = buffer.getLong(16);
+		long offsets = HEADER_SIZE + (long) eventCount * RECORD_SIZE;
+		long namesFrom = offsets + (nameCount + 1L) * 4;
+		if (eventCount < 0 || nameCount < 0 || namesFrom > buffer.limit()) {
+			throw new IOException("Truncated event snapshot");
+		}
+		this.offsetsStart = (int) offsets;
+		this.namesStart = (int) namesFrom;
+		this.names = new String[nameCount];
+		checkNames();
+		checkRecords();
+	}
+
+	/**
+	 * Checks that the name offsets start at 0, never decrease and stay inside the
+	 * file.
+	 */
+	private void checkNames() throws IOException {
+		int namesLength = buffer.limit() - namesStart;
+		int previous = 0;
+		for (int id = 0; id <= nameCount; id++) {
+			int offset = buffer.getInt(offsetsStart + id * 4);
+			if ((id == 0 && offset != 0) || offset < previous || offset > namesLength) {
+				throw new IOException("Corrupt event snapshot: bad offset of name " + id);
+			}
+			previous = offset;
+		}
+	}
+
+	/**
+	 * Checks that every record names an entry of the string table and holds
+	 * minutes of a day.
+	 */
+	private void checkRecords() throws IOException {
+		for (int i = 0; i < eventCount; i++) {
+			int at = HEADER_SIZE + i * RECORD_SIZE;
+			int nameId = buffer.getInt(at);
+			if (nameId < 0 || nameId >= nameCount) {
+				throw new IOException("Corrupt event snapshot: event " + i + " has name id " + nameId);
+			}
+			if (!isMinuteOfDay(buffer.getShort(at + 12)) || !isMinuteOfDay(buffer.getShort(at + 14))) {
+				throw new IOException("Corrupt event snapshot: event " + i + " has a time out of range");
+			}
+		}
+	}
+
+	/**
+	 * Checks that a stored time is a minute of the day (0 to 1439).
+	 *
+	 * @param minute: the stored minute
+	 * @return true if the minute is in range, false otherwise
+	 */
+	static boolean isMinuteOfDay(int minute) {
+		return minute >= 0 && minute < 24 * 60;
+	}
+
+	/**
+	 * Memory-maps a snapshot file and checks its layout. No event is decoded
+	 * until it is asked for.
+	 *
+	 * @param path: the snapshot file
+	 * @return the opened snapshot
+	 * @throws IOException if the file cannot be read or is not a snapshot
+	 */
+	static EventSnapshot open(Path path) throws IOException {
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			if (channel.size() > Integer.MAX_VALUE) {
+				throw new IOException("Event snapshot too large to map: " + path);
+			}
+			MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+			return new EventSnapshot(mapped);
+		}
+	}
+
+	/**
+	 * Gets the number of events in the snapshot.
+	 *
+	 * @return the number of events
+	 */
+	int size() {
+		return eventCount;
+	}
+
+	/**
+	 * Gets the last journal entry already included in the snapshot.
+	 *
+	 * @return the journal sequence, or 0 if there is none
+	 */
+	long getJournalSequence() {
+		return journalSequence;
+	}
+
+	/**
+	 * Decodes one event from the snapshot.
+	 *
+	 * @param i: position of the event (0 to size - 1)
+	 * @return a new Event with the stored values
+	 */
+	Event get(int i) {
+		int at = HEADER_SIZE + i * RECORD_SIZE;
+		String name = nameOf(buffer.getInt(at));
+		LocalDate startDate = LocalDate.ofEpochDay(buffer.getInt(at + 4));
+		LocalDate endDate = LocalDate.ofEpochDay(buffer.getInt(at + 8));
+		LocalTime startTime = EventFileReader.timeOf(buffer.getShort(at + 12));
+		LocalTime endTime = EventFileReader.timeOf(buffer.getShort(at + 14));
+		TimeInterval timeInterval = new TimeInterval(startDate, startTime, endDate, endTime);
+
+		if ((buffer.get(at + 25) & FLAG_RECURRING) == 0) {
+			return new Event(name, timeInterval);
+		}
+		LocalDate recurringStart = LocalDate.ofEpochDay(buffer.getInt(at + 16));
+		LocalDate recurringEnd = LocalDate.ofEpochDay(buffer.getInt(at + 20));
+		DayOfWeek[] days = daysOf(buffer.get(at + 24));
+		return new Event(name, timeInterval, days, recurringStart, recurringEnd);
+	}
+
+	/**
+	 * Gets the number of distinct names in the string table.
+	 *
+	 * @return the number of names
+	 */
+	int nameCount() {
+		return nameCount;
+	}
+
+	// The ...At methods read one field of a record without decoding the event,
+	// so PackedEventStore can copy the records into its columns as they are
+
+	/**
+	 * Gets one field of a record.
+	 *
+	 * @param i: position of the event (0 to size - 1)
+	 * @return the id of its name in the string table
+	 */
+	int nameIdAt(int i) {
+		return buffer.getInt(HEADER_SIZE + i * RECORD_SIZE);
+	}
+
+	/**
+	 * Gets one field of a record.
+	 *
+	 * @param i: position of the event (0 to size - 1)
+	 * @return the epoch day its interval starts on
+	 */
+	int startDayAt(int i) {
+		return buffer.getInt(HEADER_SIZE + i * RECORD_SIZE + 4);
+	}
+
+	/**
+	 * Gets one field of a record.
+	 *
+	 * @param i: position of the event (0 to size - 1)
+	 * @return the epoch day its interval ends on
+	 */
+	int endDayAt(int i) {
+		return buffer.getInt(HEADER_SIZE + i * RECORD_SIZE + 8);
+	}
+
+	/**
+	 * Gets one field of a record.
+	 *
+	 * @param i: position of the event (0 to size - 1)
+	 * @return the minute of the day its interval starts at
+	 */
+	short startMinuteAt(int i) {
+		return buffer.getShort(HEADER_SIZE + i * RECORD_SIZE + 12);
+	}
+
+	/**
+	 * Gets one field of a record.
+	 *
+	 * @param i: position of the event (0 to size - 1)
+	 * @return the minute of the day its interval ends at
+	 */
+	short endMinuteAt(int i) {
+		return buffer.getShort(HEADER_SIZE + i * RECORD_SIZE + 14);
+	}
+
+	/**
+	 * Gets one field of a record.
+	 *
+	 * @param i: position of the event (0 to size - 1)
+	 * @return the first epoch day it recurs on, or 0 for a one-time event
+	 */
+	int recurringStartAt(int i) {
+		return buffer.getInt(HEADER_SIZE + i * RECORD_SIZE + 16);
+	}
+
+	/**
+	 * Gets one field of a record.
+	 *
+	 * @param i: position of the event (0 to size - 1)
+	 * @return the last epoch day it recurs on, or 0 for a one-time event
+	 */
+	int recurringEndAt(int i) {
+		return buffer.getInt(HEADER_SIZE + i * RECORD_SIZE + 20);
+	}
+
+	/**
+	 * Gets one field of a record.
+	 *
+	 * @param i: position of the event (0 to size - 1)
+	 * @return its recurring days, bit 0 for Monday, or 0 for a one-time event
+	 */
+	byte dayMaskAt(int i) {
+		return buffer.get(HEADER_SIZE + i * RECORD_SIZE + 24);
+	}
+
+	/**
+	 * Tells whether a record is a recurring event.
+	 *
+	 * @param i: position of the event (0 to size - 1)
+	 * @return true if the event recurs, false if it happens once
+	 */
+	boolean isRecurringAt(int i) {
+		return (buffer.get(HEADER_SIZE + i * RECORD_SIZE + 25) & FLAG_RECURRING) != 0;
+	}
+
+	/**
+	 * Gets a name from the string table, decoding it the first time.
+	 *
+	 * @param id: the name id
+	 * @return the name
+	 */
+	String nameOf(int id) {
+		String name = names[id];
+		if (name == null) {
+			int from = buffer.getInt(offsetsStart + id * 4);
+			int to = buffer.getInt(offsetsStart + id * 4 + 4);
+			byte[] bytes = new byte[to - from];
+			buffer.get(namesStart + from, bytes);
+			name = new String(bytes, StandardCharsets.UTF_8);
+			names[id] = name;
+		}
+		return name;
+	}
+
+	/**
+	 * Writes events to a snapshot file. The snapshot is written to a temporary
+	 * file first and then moved over the target, so a crash never leaves a
+	 * half-written snapshot behind.
+	 *
+	 * @param events:          the events to write, in calendar order
+	 * @param path:            the snapshot file
+	 * @param journalSequence: last journal entry included in the events
+	 * @throws IOException if the file cannot be written
+	 */
+	static void write(Collection<Event> events, Path path, long journalSequence) throws IOException {
+		// Give each distinct name an id
+		Map<String, Integer> nameIds = new HashMap<>();
+		List<byte[]> nameBytes = new ArrayList<>();
+		int[] eventNameIds = new int[events.size()];
+		int i = 0;
+		for (Event event : events) {
+			String name = event.getName();
+			Integer id = nameIds.get(name);
+			if (id == null) {
+				id = nameBytes.size();
+				nameIds.put(name, id);
+				nameBytes.add(name.getBytes(StandardCharsets.UTF_8));
+			}
+			eventNameIds[i++] = id;
+		}
+
+		Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+		try {
+			writeFile(temp, events, journalSequence, eventNameIds, nameBytes);
+			Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch (IOException | RuntimeException e) {
+			// Leave no half-written file next to the snapshot
+			Files.deleteIfExists(temp);
+			throw e;
+		}
+	}
+
+	private static void writeFile(Path temp, Collection<Event> events, long journalSequence, int[] eventNameIds,
+			List<byte[]> nameBytes) throws IOException {
+		try (DataOutputStream out = new DataOutputStream(
+				new BufferedOutputStream(Files.newOutputStream(temp), 64 * 1024))) {
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+			out.writeInt(events.size());
+			out.writeInt(nameBytes.size());
+			out.writeLong(journalSequence);
+
+			int i = 0;
+			for (Event event : events) {
+				writeRecord(out, event, eventNameIds[i++]);
+			}
+
+			int offset = 0;
+			out.writeInt(offset);
+			for (byte[] bytes : nameBytes) {
+				offset += bytes.length;
+				out.writeInt(offset);
+			}
+			for (byte[] bytes : nameBytes) {
+				out.write(bytes);
+			}
+		}
+	}
+
+	private static void writeRecord(DataOutputStream out, Event event, int nameId) throws IOException {
+		TimeInterval timeInterval = event.getTimeInterval();
+		out.writeInt(nameId);
+		out.writeInt((int) timeInterval.getStartDate().toEpochDay());
+		out.writeInt((int) timeInterval.getEndDate().toEpochDay());
+		out.writeShort(minuteOfDay(timeInterval.getStartTime()));
+		out.writeShort(minuteOfDay(timeInterval.getEndTime()));
+		if (event.isRecurring()) {
+			out.writeInt((int) event.getStartDate().toEpochDay());
+			out.writeInt((int) event.getEndDate().toEpochDay());
+			out.writeByte(event.getDayMask());
+			out.writeByte(FLAG_RECURRING);
+		} else {
+			out.writeInt(0);
+			out.writeInt(0);
+			out.writeByte(0);
+			out.writeByte(0);
+		}
+	}
+
+	/**
+	 * Converts a day mask back to days of the week, Monday first.
+	 *
+	 * @param mask: the day mask
+	 * @return the days in the mask
+	 */
+	static DayOfWeek[] daysOf(int mask) {
+		DayOfWeek[] days = new DayOfWeek[Integer.bitCount(mask & Event.ALL_DAYS)];
+		int count = 0;
+		for (DayOfWeek day : DayOfWeek.values()) {
+			if ((mask & (1 << (day.getValue() - 1))) != 0) {
+				days[count++] = day;
+			}
+		}
+		return days;
+	}
+
+	/**
+	 * Gets the minutes since midnight of a time.
+	 *
+	 * @param time: the time
+	 * @return the minute of the day (0 to 1439)
+	 */
+	static int minuteOfDay(LocalTime time) {
+		return time.getHour() * 60 + time.getMinute();
+	}
+}
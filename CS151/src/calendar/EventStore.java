@@ -0,0 +1,148 @@
+package calendar;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * EventStore holds a calendar's events together with the indexes that find
+ * them by date and by name. MyCalendar and its helpers only go through this
+ * interface, so the events can be kept either as Event objects
+ * (ObjectEventStore) or packed into primitive columns (PackedEventStore).
+ *
+ * Lookups return events in the order they were added, the same order a scan
+ * over the calendar's events gives.
+ *
+ * Programmed by: Nathan Dinh
+ *
+ * Date: 10/17/2026
+ */
+
+interface EventStore {
+
+	/**
+	 * Adds an event after the existing ones.
+	 *
+	 * @param event: the event to add
+	 */
+	void add(Event event);
+
+	/**
+	 * Adds every event of a snapshot after the existing ones, in snapshot order,
+	 * without decoding records the store can copy as they are.
+	 *
+	 * @param snapshot: the snapshot to add
+	 */
+	void addAll(EventSnapshot snapshot);
+
+	/**
+	 * Removes an event returned by this store, or one with the same values.
+	 *
+	 * @param event: the event to remove
+	 * @return true if the event was in the store, false otherwise
+	 */
+	boolean remove(Event event);
+
+	/**
+	 * Removes many events in a single pass over the store.
+	 *
+	 * @param toRemove: the events to remove; events not in the store are ignored
+	 * @return the removed events, in the order they were added
+	 */
+	List<Event> removeAll(Collection<Event> toRemove);
+
+	/**
+	 * Gets every event, in the order they were added.
+	 *
+	 * @return a read only view of the events
+	 */
+	Collection<Event> events();
+
+	/**
+	 * Gets the events with a name, ignoring case, in the order they were added.
+	 *
+	 * @param name: the name to look up
+	 * @return the events with the name (read only, may be empty)
+	 */
+	List<Event> named(String name);
+
+	/**
+	 * Gets all events that occur on the given date, in the order they were added.
+	 *
+	 * @param date: the date to look up
+	 * @return a new list of events occurring on the date
+	 */
+	List<Event> eventsOn(LocalDate date);
+
+	/**
+	 * Gets the one-time events of a range of days, grouped by day in date order.
+	 * The days are read from the store as the iterator advances.
+	 *
+	 * @param fromDay: first epoch day (inclusive)
+	 * @param toDay:   last epoch day (inclusive)
+	 * @return the one-time events of each day that has some, by epoch day
+	 */
+	Iterator<Map.Entry<Long, List<Event>>> oneTimeDays(long fromDay, long toDay);
+
+	/**
+	 * Passes every recurring event whose date span overlaps a range of days to the
+	 * consumer.
+	 *
+	 * @param fromDay: first epoch day (inclusive)
+	 * @param toDay:   last epoch day (inclusive)
+	 * @param action:  receives each recurring event
+	 */
+	void recurringBetween(long fromDay, long toDay, Consumer<Event> action);
+
+	/**
+	 * Gets the position of an event in the order events were added.
+	 *
+	 * @param event: an event returned by this store
+	 * @return its insertion sequence number
+	 */
+	long sequenceOf(Event event);
+
+	/**
+	 * Builds the occupancy bitmap of a month: bit (day - 1) is set when at least
+	 * one event occurs on that day of the month.
+	 *
+	 * @param month: the month to compute
+	 * @return the occupancy bitmap of the month
+	 */
+	int occupancyOf(YearMonth month);
+
+	/**
+	 * Builds the occupancy bitmaps of consecutive months in one pass.
+	 *
+	 * @param first: the first month to compute
+	 * @param count: the number of months
+	 * @return the occupancy bitmap of each month, in order
+	 * @throws IllegalArgumentException if count is less than 1
+	 */
+	int[] occupancyOf(YearMonth first, int count);
+
+	/**
+	 * Gets the number of events in the store.
+	 *
+	 * @return the number of events
+	 */
+	int size();
+
+	/**
+	 * Estimates the heap the events and indexes take, assuming a 64-bit JVM with
+	 * compressed references. The estimate is meant for monitoring, not exact
+	 * accounting.
+	 *
+	 * @return the estimated size in bytes
+	 */
+	long estimatedBytes();
+
+	/**
+	 * Removes every event from the store.
+	 */
+	void clear();
+}
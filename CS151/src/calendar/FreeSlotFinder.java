@@ -0,0 +1,130 @@
+package calendar;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * FreeSlotFinder searches a calendar for open time between its events, for
+ * example the first 45 minute gap on a weekday between 9:00 and 17:00 over the
+ * next three months.
+ *
+ * The search is one sweep over the calendar's occurrences, which arrive sorted
+ * by day and start time: each day keeps the minute from which it is free, and
+ * every busy interval either leaves a gap before it or pushes that minute past
+ * its end. Overlapping events merge on the way. Recurring events are stepped
+ * forward lazily, so a long horizon with many recurring events costs one step
+ * per occurrence and the search stops as soon as enough slots are found.
+ *
+ * The calendar counts events that only touch at their end points as
+ * overlapping (see TimeInterval.overlaps), so a free slot starts a minute after
+ * the event before it ends and ends a minute before the next one starts. Any
+ * slot found can therefore be booked without a conflict.
+ *
+ * Programmed by: Nathan Dinh
+ *
+ * Date: 10/17/2026
+ */
+
+class FreeSlotFinder {
+
+	// Source of the calendar's occurrences
+	private final EventStore index;
+
+	// Occurrences the last search stepped through
+	private int scanned;
+
+	/**
+	 * Constructor for a finder over the given index.
+	 *
+	 * @param index: index of the calendar's events
+	 */
+	FreeSlotFinder(EventStore index) {
+		this.index = index;
+	}
+
+	/**
+	 * Gets the number of occurrences the last call of find stepped through.
+	 *
+	 * @return the number of occurrences
+	 */
+	int getScanned() {
+		return scanned;
+	}
+
+	/**
+	 * Finds free gaps of at least the given length, in chronological order.
+	 *
+	 * @param from:        first date to search (inclusive)
+	 * @param to:          last date to search (inclusive)
+	 * @param windowStart: earliest time of day a slot may start
+	 * @param windowEnd:   latest time of day a slot may end
+	 * @param minutes:     minimum length of a slot in minutes
+	 * @param dayMask:     days of the week to search, one bit per day as in Event
+	 * @param limit:       maximum number of slots to return
+	 * @return the free gaps, each as long as the time allows (at least minutes)
+	 */
+	List<TimeInterval> find(LocalDate from, LocalDate to, LocalTime windowStart, LocalTime windowEnd, int minutes,
+			int dayMask, int limit) {
+		List<TimeInterval> slots = new ArrayList<>();
+		int windowFirst = ceilMinute(windowStart);
+		int windowLast = windowEnd.toSecondOfDay() / 60;
+		long toDay = to.toEpochDay();
+
+		// Day being swept and the first minute of it that is still free
+		long day = from.toEpochDay();
+		int free = windowFirst;
+
+		scanned = 0;
+		OccurrenceIterator occurrences = new OccurrenceIterator(index, from, to);
+		while (occurrences.hasNext() && slots.size() < limit) {
+			Occurrence occurrence = occurrences.next();
+			scanned++;
+			long occurrenceDay = occurrence.getDate().toEpochDay();
+
+			// Days before this occurrence are free from the last busy time to the end
+			while (day < occurrenceDay) {
+				addGap(slots, day, dayMask, free, windowLast, minutes);
+				if (slots.size() >= limit) {
+					return slots;
+				}
+				day++;
+				free = windowFirst;
+			}
+
+			TimeInterval busy = occurrence.getEvent().getTimeInterval();
+			int busyStart = busy.getStartTime().toSecondOfDay() / 60;
+			int busyEnd = ceilMinute(busy.getEndTime());
+			addGap(slots, day, dayMask, free, Math.min(busyStart - 1, windowLast), minutes);
+			free = Math.max(free, busyEnd + 1);
+		}
+
+		// The rest of the range has no more events
+		while (day <= toDay && slots.size() < limit) {
+			addGap(slots, day, dayMask, free, windowLast, minutes);
+			day++;
+			free = windowFirst;
+		}
+		return slots;
+	}
+
+	/**
+	 * Adds the gap [first, last] of a day if the day is searched and the gap is
+	 * long enough.
+	 */
+	private static void addGap(List<TimeInterval> slots, long day, int dayMask, int first, int last, int minutes) {
+		if (last - first >= minutes && (dayMask & Event.dayBit(day)) != 0) {
+			LocalDate date = LocalDate.ofEpochDay(day);
+			slots.add(new TimeInterval(date, LocalTime.of(first / 60, first % 60), date,
+					LocalTime.of(last / 60, last % 60)));
+		}
+	}
+
+	/**
+	 * Gets the first whole minute of the day at or after a time.
+	 */
+	private static int ceilMinute(LocalTime time) {
+		return (time.toSecondOfDay() + 59) / 60;
+	}
+}
@@ -0,0 +1,115 @@
+package calendar;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * GroupScheduler finds times when everyone in a group is free, given one
+ * calendar per person.
+ *
+ * Each calendar turns its occurrences in the range into a bitset with one bit
+ * per minute (see MyCalendar.busyMinutes). The bitsets are built and OR-ed
+ * together in parallel on a ForkJoinPool, so hundreds of calendars cost one
+ * sweep each spread over the cores, plus a word-wise OR. The free windows are
+ * then read from the clear runs of the merged bitset.
+ *
+ * As for MyCalendar.findFreeSlots, an event's start and end minute both count
+ * as busy, so any window found can be booked in every calendar without a
+ * conflict.
+ *
+ * Programmed by: Nathan Dinh
+ *
+ * Date: 10/17/2026
+ */
+
+public class GroupScheduler {
+
+	/**
+	 * Utility class, not instantiated.
+	 */
+	private GroupScheduler() {
+	}
+
+	/**
+	 * Finds free windows common to all calendars, using the common pool.
+	 *
+	 * @param calendars:   the calendars that must all be free
+	 * @param from:        first date to search (inclusive)
+	 * @param to:          last date to search (inclusive)
+	 * @param windowStart: earliest time of day a window may start
+	 * @param windowEnd:   latest time of day a window may end
+	 * @param length:      minimum length of a window
+	 * @param days:        days of the week to search
+	 * @param limit:       maximum number of windows to return
+	 * @return the common free windows in chronological order
+	 */
+	public static List<TimeInterval> findCommonFreeSlots(Collection<? extends MyCalendar> calendars, LocalDate from,
+			LocalDate to, LocalTime windowStart, LocalTime windowEnd, Duration length, Set<DayOfWeek> days,
+			int limit) {
+		return findCommonFreeSlots(calendars, from, to, windowStart, windowEnd, length, days, limit,
+				ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Finds free windows common to all calendars. Windows are returned in
+	 * chronological order, each as long as the shared free time allows.
+	 *
+	 * @param calendars:   the calendars that must all be free
+	 * @param from:        first date to search (inclusive)
+	 * @param to:          last date to search (inclusive)
+	 * @param windowStart: earliest time of day a window may start
+	 * @param windowEnd:   latest time of day a window may end
+	 * @param length:      minimum length of a window
+	 * @param days:        days of the week to search
+	 * @param limit:       maximum number of windows to return
+	 * @param pool:        pool to build and merge the bitsets on
+	 * @return the common free windows in chronological order
+	 */
+	public static List<TimeInterval> findCommonFreeSlots(Collection<? extends MyCalendar> calendars, LocalDate from,
+			LocalDate to, LocalTime windowStart, LocalTime windowEnd, Duration length, Set<DayOfWeek> days, int limit,
+			ForkJoinPool pool) {
+		BitSet busy = pool.submit(() -> calendars.parallelStream().map(calendar -> calendar.busyMinutes(from, to))
+				.reduce((a, b) -> {
+					a.or(b);
+					return a;
+				}).orElseGet(BitSet::new)).join();
+
+		int minutes = (int) ((length.getSeconds() + 59) / 60);
+		int windowFirst = (windowStart.toSecondOfDay() + 59) / 60;
+		int windowLast = windowEnd.toSecondOfDay() / 60;
+		long fromDay = from.toEpochDay();
+		long dayCount = to.toEpochDay() - fromDay + 1;
+
+		List<TimeInterval> slots = new ArrayList<>();
+		for (int offset = 0; offset < dayCount && slots.size() < limit; offset++) {
+			LocalDate date = LocalDate.ofEpochDay(fromDay + offset);
+			if (!days.contains(date.getDayOfWeek())) {
+				continue;
+			}
+
+			// Walk the clear runs of the day inside the window
+			int dayStart = offset * MyCalendar.MINUTES_PER_DAY;
+			int first = busy.nextClearBit(dayStart + windowFirst);
+			while (first <= dayStart + windowLast && slots.size() < limit) {
+				int nextBusy = busy.nextSetBit(first);
+				int last = nextBusy < 0 ? dayStart + windowLast : Math.min(nextBusy - 1, dayStart + windowLast);
+				if (last - first >= minutes) {
+					int startMinute = first - dayStart;
+					int endMinute = last - dayStart;
+					slots.add(new TimeInterval(date, LocalTime.of(startMinute / 60, startMinute % 60), date,
+							LocalTime.of(endMinute / 60, endMinute % 60)));
+				}
+				first = busy.nextClearBit(last + 1);
+			}
+		}
+		return slots;
+	}
+}
@@ -0,0 +1,233 @@
+package calendar;
+
+import java.util.function.Consumer;
+
+/**
+ * IntervalTree stores closed intervals of epoch days and answers which
+ * intervals contain a given day or overlap a given range. It is a treap ordered
+ * by interval start where every node also keeps the largest end in its subtree,
+ * so whole subtrees that end before the query are skipped.
+ *
+ * Programmed by: Nathan Dinh
+ *
+ * Date: 10/17/2026
+ *
+ * @param <T> the type of value stored with each interval
+ */
+
+class IntervalTree<T> {
+
+	/**
+	 * One interval in the tree. The tie value keeps keys unique when several
+	 * intervals start on the same day.
+	 */
+	private static final class Node<T> {
+		final long start;
+		final long end;
+		final long tie;
+		final long priority;
+		final T value;
+		long maxEnd;
+		int size;
+		Node<T> left;
+		Node<T> right;
+
+		Node(long start, long end, long tie, T value) {
+			this.start = start;
+			this.end = end;
+			this.tie = tie;
+			this.value = value;
+			this.priority = mix(start * 31 + tie);
+			this.maxEnd = end;
+			this.size = 1;
+		}
+	}
+
+	// Root of the treap
+	private Node<T> root;
+
+	/**
+	 * Inserts an interval into the tree.
+	 *
+	 * @param start: first day of the interval (inclusive)
+	 * @param end:   last day of the interval (inclusive)
+	 * @param tie:   unique tie breaker for intervals with the same start
+	 * @param value: value stored with the interval
+	 */
+	void insert(long start, long end, long tie, T value) {
+		root = insert(root, new Node<>(start, end, tie, value));
+	}
+
+	/**
+	 * Removes the interval inserted with the given start and tie breaker.
+	 *
+	 * @param start: start the interval was inserted with
+	 * @param tie:   tie breaker the interval was inserted with
+	 * @return true if an interval was removed, false otherwise
+	 */
+	boolean remove(long start, long tie) {
+		int before = size();
+		root = remove(root, start, tie);
+		return size() < before;
+	}
+
+	/**
+	 * Passes every interval that contains the given day to the consumer, in order
+	 * of interval start.
+	 *
+	 * @param day:    the day to look up
+	 * @param action: receives the value of each matching interval
+	 */
+	void stab(long day, Consumer<? super T> action) {
+		overlapping(root, day, day, action);
+	}
+
+	/**
+	 * Passes every interval that overlaps [from, to] to the consumer, in order of
+	 * interval start.
+	 *
+	 * @param from:   first day of the range (inclusive)
+	 * @param to:     last day of the range (inclusive)
+	 * @param action: receives the value of each matching interval
+	 */
+	void overlapping(long from, long to, Consumer<? super T> action) {
+		overlapping(root, from, to, action);
+	}
+
+	/**
+	 * Gets the number of intervals in the tree.
+	 *
+	 * @return the number of intervals
+	 */
+	int size() {
+		return root == null ? 0 : root.size;
+	}
+
+	/**
+	 * Removes every interval from the tree.
+	 */
+	void clear() {
+		root = null;
+	}
+
+	private void overlapping(Node<T> node, long from, long to, Consumer<? super T> action) {
+		// Nothing below this node ends on or after the start of the range
+		if (node == null || node.maxEnd < from) {
+			return;
+		}
+		overlapping(node.left, from, to, action);
+		if (node.start <= to) {
+			if (node.end >= from) {
+				action.accept(node.value);
+			}
+			// Right subtree only holds intervals starting at or after this one
+			overlapping(node.right, from, to, action);
+		}
+	}
+
+	private Node<T> insert(Node<T> node, Node<T> added) {
+		if (node == null) {
+			return added;
+		}
+		if (compare(added.start, added.tie, node) < 0) {
+			node.left = insert(node.left, added);
+			if (node.left.priority > node.priority) {
+				node = rotateRight(node);
+			}
+		} else {
+			node.right = insert(node.right, added);
+			if (node.right.priority > node.priority) {
+				node = rotateLeft(node);
+			}
+		}
+		update(node);
+		return node;
+	}
+
+	private Node<T> remove(Node<T> node, long start, long tie) {
+		if (node == null) {
+			return null;
+		}
+		int cmp = compare(start, tie, node);
+		if (cmp < 0) {
+			node.left = remove(node.left, start, tie);
+		} else if (cmp > 0) {
+			node.right = remove(node.right, start, tie);
+		} else {
+			node = merge(node.left, node.right);
+			if (node == null) {
+				return null;
+			}
+		}
+		update(node);
+		return node;
+	}
+
+	/**
+	 * Joins two treaps where every key in left is smaller than every key in right.
+	 */
+	private Node<T> merge(Node<T> left, Node<T> right) {
+		if (left == null) {
+			return right;
+		}
+		if (right == null) {
+			return left;
+		}
+		if (left.priority > right.priority) {
+			left.right = merge(left.right, right);
+			update(left);
+			return left;
+		}
+		right.left = merge(left, right.left);
+		update(right);
+		return right;
+	}
+
+	private Node<T> rotateRight(Node<T> node) {
+		Node<T> pivot = node.left;
+		node.left = pivot.right;
+		pivot.right = node;
+		update(node);
+		update(pivot);
+		return pivot;
+	}
+
+	private Node<T> rotateLeft(Node<T> node) {
+		Node<T> pivot = node.right;
+		node.right = pivot.left;
+		pivot.left = node;
+		update(node);
+		update(pivot);
+		return pivot;
+	}
+
+	private static <T> void update(Node<T> node) {
+		long maxEnd = node.end;
+		int size = 1;
+		if (node.left != null) {
+			maxEnd = Math.max(maxEnd, node.left.maxEnd);
+			size += node.left.size;
+		}
+		if (node.right != null) {
+			maxEnd = Math.max(maxEnd, node.right.maxEnd);
+			size += node.right.size;
+		}
+		node.maxEnd = maxEnd;
+		node.size = size;
+	}
+
+	private static int compare(long start, long tie, Node<?> node) {
+		int cmp = Long.compare(start, node.start);
+		return cmp != 0 ? cmp : Long.compare(tie, node.tie);
+	}
+
+	/**
+	 * Scrambles a key into a heap priority (splitmix64 finalizer), so the tree
+	 * stays balanced without a random number generator.
+	 */
+	private static long mix(long z) {
+		z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+		z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+		return z ^ (z >>> 31);
+	}
+}
@@ -0,0 +1,96 @@
+package calendar;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * LatencyHistogram counts durations in buckets that grow with the value: each
+ * power of two is split into eight buckets, so any recorded duration is known
+ * to within an eighth of itself while the whole range of a long fits in under
+ * 500 counters. Recording is one array increment and may happen on many
+ * threads at once.
+ *
+ * Programmed by: Nathan Dinh
+ *
+ * Date: 10/17/2026
+ */
+
+class LatencyHistogram {
+
+	// Buckets per power of two, as bits
+	private static final int SUB_BITS = 3;
+	private static final int SUB_BUCKETS = 1 << SUB_BITS;
+	private static final int BUCKETS = (64 - SUB_BITS) * SUB_BUCKETS;
+
+	private final AtomicLongArray counts;
+
+	/**
+	 * Default constructor with no durations.
+	 */
+	LatencyHistogram() {
+		this.counts = new AtomicLongArray(BUCKETS);
+	}
+
+	/**
+	 * Counts one duration.
+	 *
+	 * @param nanos: the duration in nanoseconds; negative values count as 0
+	 */
+	void record(long nanos) {
+		counts.incrementAndGet(bucketOf(Math.max(nanos, 0)));
+	}
+
+	/**
+	 * Gets the duration that the given share of the recorded durations do not
+	 * exceed, rounded up to the end of its bucket.
+	 *
+	 * @param share: the share, between 0 and 1
+	 * @return the duration in nanoseconds, or 0 if nothing was recorded
+	 */
+	long percentile(double share) {
+		long total = 0;
+		for (int i = 0; i < BUCKETS; i++) {
+			total += counts.get(i);
+		}
+		if (total == 0) {
+			return 0;
+		}
+		long rank = Math.max(1, (long) Math.ceil(share * total));
+		long seen = 0;
+		for (int i = 0; i < BUCKETS; i++) {
+			seen += counts.get(i);
+			if (seen >= rank) {
+				return highestOf(i);
+			}
+		}
+		// Durations recorded while summing may leave the rank just out of reach
+		return highestOf(BUCKETS - 1);
+	}
+
+	/**
+	 * Removes every recorded duration.
+	 */
+	void clear() {
+		for (int i = 0; i < BUCKETS; i++) {
+			counts.set(i, 0);
+		}
+	}
+
+	private static int bucketOf(long value) {
+		if (value < SUB_BUCKETS) {
+			return (int) value;
+		}
+		int exponent = 63 - Long.numberOfLeadingZeros(value);
+		int sub = (int) (value >>> (exponent - SUB_BITS)) & (SUB_BUCKETS - 1);
+		return (exponent - SUB_BITS + 1) * SUB_BUCKETS + sub;
+	}
+
+	private static long highestOf(int bucket) {
+		if (bucket < SUB_BUCKETS) {
+			return bucket;
+		}
+		int exponent = bucket / SUB_BUCKETS + SUB_BITS - 1;
+		int sub = bucket % SUB_BUCKETS;
+		long lowest = (long) (SUB_BUCKETS + sub) << (exponent - SUB_BITS);
+		return lowest + (1L << (exponent - SUB_BITS)) - 1;
+	}
+}
@@ -0,0 +1,138 @@
+package calendar;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import javax.management.Attribute;
+import javax.management.AttributeList;
+import javax.management.AttributeNotFoundException;
+import javax.management.DynamicMBean;
+import javax.management.MBeanAttributeInfo;
+import javax.management.MBeanException;
+import javax.management.MBeanInfo;
+import javax.management.MBeanOperationInfo;
+import javax.management.ReflectionException;
+
+/**
+ * MBeanAdapter publishes an object through JMX by one of its interfaces: each
+ * getter becomes a read-only attribute and each method without parameters or
+ * result becomes an operation.
+ *
+ * The JDK's own MXBean support calls the interface methods reflectively from
+ * outside this module, which a module that exports the package only to
+ * java.management does not allow. The adapter makes those calls itself, from
+ * inside the module, so JMX only calls the DynamicMBean methods.
+ *
+ * Programmed by: Nathan Dinh
+ *
+ * Date: 10/17/2026
+ */
+
+class MBeanAdapter implements DynamicMBean {
+
+	private final Object bean;
+	private final MBeanInfo info;
+
+	// Getters by attribute name, and operations by name
+	private final Map<String, Method> getters;
+	private final Map<String, Method> operations;
+
+	/**
+	 * Constructor for an MBean over the given object.
+	 *
+	 * @param bean:      the object to publish
+	 * @param interfaze: the interface whose methods are published
+	 */
+	<T> MBeanAdapter(T bean, Class<T> interfaze) {
+		this.bean = bean;
+		this.getters = new TreeMap<>();
+		this.operations = new TreeMap<>();
+		for (Method method : interfaze.getMethods()) {
+			if (method.getParameterCount() != 0) {
+				continue;
+			}
+			String name = method.getName();
+			if (name.startsWith("get") && name.length() > 3 && method.getReturnType() != void.class) {
+				getters.put(name.substring(3), method);
+			} else if (method.getReturnType() == void.class) {
+				operations.put(name, method);
+			}
+		}
+
+		List<MBeanAttributeInfo> attributes = new ArrayList<>();
+		for (Map.Entry<String, Method> getter : getters.entrySet()) {
+			attributes.add(new MBeanAttributeInfo(getter.getKey(), getter.getValue().getReturnType().getName(),
+					getter.getKey(), true, false, false));
+		}
+		List<MBeanOperationInfo> actions = new ArrayList<>();
+		for (String name : operations.keySet()) {
+			actions.add(new MBeanOperationInfo(name, name, null, "void", MBeanOperationInfo.ACTION));
+		}
+		this.info = new MBeanInfo(bean.getClass().getName(), interfaze.getSimpleName(),
+				attributes.toArray(new MBeanAttributeInfo[0]), null, actions.toArray(new MBeanOperationInfo[0]),
+				null);
+	}
+
+	@Override
+	public Object getAttribute(String attribute) throws AttributeNotFoundException, MBeanException,
+			ReflectionException {
+		Method getter = getters.get(attribute);
+		if (getter == null) {
+			throw new AttributeNotFoundException("No attribute " + attribute);
+		}
+		return call(getter);
+	}
+
+	@Override
+	public void setAttribute(Attribute attribute) throws AttributeNotFoundException {
+		throw new AttributeNotFoundException("Attribute " + attribute.getName() + " is read-only");
+	}
+
+	@Override
+	public AttributeList getAttributes(String[] attributes) {
+		AttributeList values = new AttributeList();
+		for (String attribute : attributes) {
+			try {
+				values.add(new Attribute(attribute, getAttribute(attribute)));
+			} catch (AttributeNotFoundException | MBeanException | ReflectionException e) {
+				// Attributes that cannot be read are left out, as the interface specifies
+			}
+		}
+		return values;
+	}
+
+	@Override
+	public AttributeList setAttributes(AttributeList attributes) {
+		return new AttributeList();
+	}
+
+	@Override
+	public Object invoke(String actionName, Object[] params, String[] signature) throws MBeanException,
+			ReflectionException {
+		Method operation = operations.get(actionName);
+		if (operation == null || (params != null && params.length > 0)) {
+			throw new ReflectionException(new NoSuchMethodException(actionName), "No operation " + actionName);
+		}
+		return call(operation);
+	}
+
+	@Override
+	public MBeanInfo getMBeanInfo() {
+		return info;
+	}
+
+	private Object call(Method method) throws MBeanException, ReflectionException {
+		try {
+			return method.invoke(bean);
+		} catch (InvocationTargetException e) {
+			Throwable cause = e.getCause();
+			throw new MBeanException(cause instanceof Exception ? (Exception) cause : e, method.getName() + " failed");
+		} catch (IllegalAccessException e) {
+			throw new ReflectionException(e, method.getName() + " is not accessible");
+		}
+	}
+}
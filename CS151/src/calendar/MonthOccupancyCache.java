@@ -0,0 +1,135 @@
+package calendar;
+
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * MonthOccupancyCache remembers which days of a month have events, one int per
+ * month with bit (day - 1) set for each busy day. The month view reads it
+ * instead of checking every day against the events, and adding or deleting an
+ * event only drops the months that event touches.
+ *
+ * Several readers may fill the cache at the same time; invalidation is only
+ * called while no reader is active.
+ *
+ * Programmed by: Nathan Dinh
+ *
+ * Date: 10/17/2026
+ */
+
+class MonthOccupancyCache {
+
+	// Cached bitmaps by month
+	private final Map<YearMonth, Integer> months;
+
+	/**
+	 * Default constructor with an empty cache.
+	 */
+	MonthOccupancyCache() {
+		this.months = new ConcurrentHashMap<>();
+	}
+
+	/**
+	 * Gets the occupancy bitmap of a month, computing it from the index the first
+	 * time the month is asked for.
+	 *
+	 * @param month: the month to look up
+	 * @param index: index to compute a missing month from
+	 * @return the occupancy bitmap of the month
+	 */
+	int get(YearMonth month, EventStore index) {
+		return months.computeIfAbsent(month, index::occupancyOf);
+	}
+
+	/**
+	 * Gets the occupancy bitmaps of consecutive months. Months missing from the
+	 * cache are computed together in one pass over the index instead of one pass
+	 * each.
+	 *
+	 * @param first: the first month
+	 * @param count: the number of months
+	 * @param index: index to compute missing months from
+	 * @return the occupancy bitmap of each month, in order
+	 */
+	int[] get(YearMonth first, int count, EventStore index) {
+		int[] bits = new int[count];
+		int firstMissing = -1;
+		int lastMissing = -1;
+		for (int i = 0; i < count; i++) {
+			Integer cached = months.get(first.plusMonths(i));
+			if (cached != null) {
+				bits[i] = cached;
+			} else {
+				if (firstMissing < 0) {
+					firstMissing = i;
+				}
+				lastMissing = i;
+			}
+		}
+
+		if (firstMissing >= 0) {
+			YearMonth from = first.plusMonths(firstMissing);
+			int[] computed = index.occupancyOf(from, lastMissing - firstMissing + 1);
+			for (int i = 0; i < computed.length; i++) {
+				months.putIfAbsent(from.plusMonths(i), computed[i]);
+				bits[firstMissing + i] = computed[i];
+			}
+		}
+		return bits;
+	}
+
+	/**
+	 * Drops the cached months that the given event occurs in.
+	 *
+	 * @param event: the event that was added or removed
+	 */
+	void invalidate(Event event) {
+		if (months.isEmpty()) {
+			return;
+		}
+		if (!event.isRecurring()) {
+			months.remove(YearMonth.from(event.getTimeInterval().getStartDate()));
+			return;
+		}
+
+		YearMonth first = YearMonth.from(event.getStartDate());
+		YearMonth last = YearMonth.from(event.getEndDate());
+		long spanMonths = first.until(last, ChronoUnit.MONTHS) + 1;
+
+		// Long recurring events are cheaper to handle by walking the cache itself
+		if (spanMonths > months.size()) {
+			Iterator<YearMonth> iterator = months.keySet().iterator();
+			while (iterator.hasNext()) {
+				YearMonth month = iterator.next();
+				if (!month.isBefore(first) && !month.isAfter(last)) {
+					iterator.remove();
+				}
+			}
+		} else {
+			for (YearMonth month = first; !month.isAfter(last); month = month.plusMonths(1)) {
+				months.remove(month);
+			}
+		}
+	}
+
+	/**
+	 * Checks if a day is marked busy in a month's bitmap.
+	 *
+	 * @param bits:       occupancy bitmap of the month
+	 * @param dayOfMonth: the day of the month to check (1 to 31)
+	 * @return true if the day has events, false otherwise
+	 */
+	static boolean isBusy(int bits, int dayOfMonth) {
+		return (bits & (1 << (dayOfMonth - 1))) != 0;
+	}
+
+	/**
+	 * Removes every cached month.
+	 */
+	void clear() {
+		months.clear();
+	}
+}
@@ -1,20 +1,35 @@
 package calendar;
 
-import java.io.BufferedWriter;
-import java.io.FileWriter;
 import java.io.IOException;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.time.DayOfWeek;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalTime;
+import java.time.YearMonth;
 import java.time.format.DateTimeFormatter;
 import java.time.format.TextStyle;
 import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Scanner;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * MyCalendar class load, save, store, display, and manage events. It supports
@@ -28,14 +43,80 @@ import java.util.Scanner;
 
 public class MyCalendar {
 
-	// Declare events list variable
-	private List<Event> events;
+	// Events with their date and name indexes, as objects or packed into columns
+	private EventStore store;
+
+	// Busy days per month for the month view
+	private MonthOccupancyCache monthCache;
+
+	// Busy minutes per date for conflict checks
+	private DayOccupancyCache dayCache;
+
+	// Events of recently viewed dates for the day view
+	private DayEventsCache dayEventsCache;
+
+	// Timings of the main operations (null when not measuring)
+	private CalendarMetrics metrics;
+
+	// Text file last saved in full, and the changes made since it or its last
+	// delta segment (both null until a full save). Each path keeps one
+	// EventDeltaFile, so a full save and a background merge of the same file
+	// take turns on its lock instead of replacing it at the same time
+	private final Map<Path, EventDeltaFile> deltaFiles;
+	private volatile EventDeltaFile savedFile;
+	private EventDeltaFile.Changes unsavedChanges;
+
+	// Thread merging the saved file's delta into its base, or null
+	private ScheduledExecutorService merger;
+
+	// Journal of changes since the last snapshot (null when not journaling)
+	private EventJournal journal;
+	private String snapshotFile;
+
+	// Number of journal entries that triggers a compaction into a new snapshot
+	private static final int COMPACT_AFTER_ENTRIES = 10_000;
+
+	// Bits per day in busyMinutes
+	static final int MINUTES_PER_DAY = 24 * 60;
+
+	// Number of journal entries written to disk together, and the longest an
+	// entry waits before a background flush writes it anyway
+	private static final int JOURNAL_BATCH_SIZE = 32;
+	private static final Duration JOURNAL_MAX_DELAY = Duration.ofSeconds(1);
+
+	// Number of dates whose events are kept for the day view
+	private static final int DAY_EVENTS_CACHE_SIZE = 4096;
+
+	// Number of dates whose minute bitsets are kept for the free slot search
+	private static final int DAY_OCCUPANCY_CACHE_SIZE = 4096;
+
+	// Text buffer for the views, one per thread since views render under a shared
+	// read lock in ConcurrentCalendar
+	private static final ThreadLocal<CalendarRenderer> RENDERER = ThreadLocal.withInitial(CalendarRenderer::new);
 
 	/**
-	 * Default constructor with empty Array List
+	 * Default constructor with an empty calendar that keeps its events as Event
+	 * objects, indexed by date and by name.
 	 */
 	public MyCalendar() {
-		this.events = new ArrayList<>();
+		this(false);
+	}
+
+	/**
+	 * Constructor for an empty calendar that can keep its events packed into
+	 * primitive columns, which takes far less memory for large calendars. A
+	 * packed calendar hands out new Event copies from its lookups, stores times to
+	 * the minute, and finds an event to delete by its values when it is not one
+	 * of those copies.
+	 * 
+	 * @param packed: true to pack the events, false to keep the Event objects
+	 */
+	public MyCalendar(boolean packed) {
+		this.store = packed ? new PackedEventStore() : new ObjectEventStore();
+		this.monthCache = new MonthOccupancyCache();
+		this.dayCache = new DayOccupancyCache(DAY_OCCUPANCY_CACHE_SIZE);
+		this.dayEventsCache = new DayEventsCache(DAY_EVENTS_CACHE_SIZE);
+		this.deltaFiles = new HashMap<>();
 	}
 
 	/**
@@ -44,131 +125,254 @@ public class MyCalendar {
 	 * @param filename: the file path type String
 	 */
 	public void loadEvents(String filename) {
+		long start = metrics == null ? 0 : System.nanoTime();
+		int before = store.size();
 		try {
-			List<String> lines = Files.readAllLines(Paths.get(filename));
-			DateTimeFormatter timeFormatter = DateTimeFormatter.ofPattern("H:mm");
-
-			for (int i = 0; i < lines.size(); i += 2) {
-				String eventName = lines.get(i).trim();
-				String eventInfo = lines.get(i + 1).trim();
-
-				if (isRecurringEvent(eventInfo)) {
-					// Parse recurring event
-					String[] details = eventInfo.split(" ");
-					String days = details[0];
-					String startTimeStr = details[1];
-					String endTimeStr = details[2];
-					String startDateStr = details[3];
-					String endDateStr = details[4];
-
-					// Parse the time and date
-					LocalTime startTime = LocalTime.parse(startTimeStr, timeFormatter);
-					LocalTime endTime = LocalTime.parse(endTimeStr, timeFormatter);
-
-					LocalDate startDate = LocalDate.parse(startDateStr, DateTimeFormatter.ofPattern("M/d/yy"));
-					LocalDate endDate = LocalDate.parse(endDateStr, DateTimeFormatter.ofPattern("M/d/yy"));
-
-					// Create TimeInterval
-					TimeInterval timeInterval = new TimeInterval(startDate, startTime, endDate, endTime);
-
-					// Parse days (e.g., "TR" -> [TUESDAY, THURSDAY])
-					DayOfWeek[] recurringDays = parseDays(days);
-
-					// Create recurring event
-					Event newEvent = new Event(eventName, timeInterval, recurringDays, startDate, endDate);
-					addEvent(newEvent);
-				} else {
-					// Parse one-time event
-					String[] details = eventInfo.split(" ");
-					String dateStr = details[0];
-					String startTimeStr = details[1];
-					String endTimeStr = details[2];
-
-					// Parse the time and date
-					LocalTime startTime = LocalTime.parse(startTimeStr, timeFormatter);
-					LocalTime endTime = LocalTime.parse(endTimeStr, timeFormatter);
-					LocalDate date = LocalDate.parse(dateStr, DateTimeFormatter.ofPattern("M/d/yy"));
-
-					// Create TimeInterval
-					TimeInterval timeInterval = new TimeInterval(date, startTime, date, endTime);
-
-					// Create one-time event
-					Event newEvent = new Event(eventName, timeInterval);
-					addEvent(newEvent);
-				}
-			}
+			// Stream the file and add each event as soon as it is parsed
+			new EventFileReader().read(Paths.get(filename), this::addEvent);
 		} catch (Exception e) {
 			e.printStackTrace();
 		}
+		recordTransfer(CalendarMetrics.Operation.LOAD_EVENTS, start, store.size() - before, filename);
 	}
 
 	/**
-	 * Parses a string of characters representing days of the week and converts them
-	 * into DayOfWeek.
-	 * 
-	 * @param days: String showing the days (example: "MW" for Monday and Wednesday)
-	 * @return an array of DayOfWeek corresponding to the days
-	 */
-	private DayOfWeek[] parseDays(String days) {
-		DayOfWeek[] dayArray = new DayOfWeek[days.length()];
-
-		for (int i = 0; i < days.length(); i++) {
-			char c = days.charAt(i);
-			switch (c) {
-			case 'M':
-				dayArray[i] = DayOfWeek.MONDAY;
-				break;
-			case 'T':
-				dayArray[i] = DayOfWeek.TUESDAY;
-				break;
-			case 'W':
-				dayArray[i] = DayOfWeek.WEDNESDAY;
-				break;
-			case 'R':
-				dayArray[i] = DayOfWeek.THURSDAY;
-				break;
-			case 'F':
-				dayArray[i] = DayOfWeek.FRIDAY;
-				break;
-			case 'S':
-				dayArray[i] = DayOfWeek.SATURDAY;
-				break;
-			case 'U':
-				dayArray[i] = DayOfWeek.SUNDAY;
-				break;
-			default:
-				throw new IllegalArgumentException("Invalid day character: " + c);
-			}
+	 * Loads events from a file like loadEvents, but parses large files on several
+	 * cores. Events are added in file order and are the same as the ones
+	 * loadEvents would add.
+	 * 
+	 * @param filename: the file path type String
+	 * @param pool:     the pool to parse the file on
+	 */
+	public void loadEventsParallel(String filename, ForkJoinPool pool) {
+		long start = metrics == null ? 0 : System.nanoTime();
+		int before = store.size();
+		try {
+			new ParallelEventFileReader(pool).read(Paths.get(filename), this::addEvent);
+		} catch (Exception e) {
+			e.printStackTrace();
 		}
+		recordTransfer(CalendarMetrics.Operation.LOAD_EVENTS, start, store.size() - before, filename);
+	}
 
-		return dayArray;
+	/**
+	 * Adds a new event to the calendar.
+	 * 
+	 * @param event: the event to be added
+	 * @throws IllegalArgumentException if the calendar keeps events as objects
+	 *                                  and already holds this one
+	 */
+	public void addEvent(Event event) {
+		long start = metrics == null ? 0 : System.nanoTime();
+		store.add(event);
+		eventAdded(event);
+		if (metrics != null) {
+			metrics.record(CalendarMetrics.Operation.ADD_EVENT, start, 1);
+		}
 	}
 
 	/**
-	 * Checks if the event is recurring based on the presence of day abbreviations
-	 * (S, M, T, W, R, F, A) at the beginning of the event details.
+	 * Updates the caches and the journal after an event was added to the store.
 	 * 
-	 * @param details: the event details string
-	 * @return true if the event is recurring, false otherwise
+	 * @param event: the event that was added
 	 */
-	private boolean isRecurringEvent(String details) {
-		// Check if the first character(s) are valid day abbreviations
-		if (details == null || details.isEmpty()) {
-			return false;
+	private void eventAdded(Event event) {
+		monthCache.invalidate(event);
+		dayCache.invalidate(event);
+		dayEventsCache.invalidate(event);
+		if (unsavedChanges != null) {
+			unsavedChanges.add(formatEventForFile(event));
 		}
+		writeJournal(EventJournal.ADD, event);
+	}
 
-		char firstLetter = details.charAt(0);
-		return (firstLetter == 'S' || firstLetter == 'M' || firstLetter == 'T' || firstLetter == 'W'
-				|| firstLetter == 'R' || firstLetter == 'F' || firstLetter == 'A');
+	/**
+	 * Updates the caches and the journal after an event was removed from the
+	 * store.
+	 * 
+	 * @param event: the event that was removed
+	 */
+	private void eventRemoved(Event event) {
+		monthCache.invalidate(event);
+		dayCache.invalidate(event);
+		dayEventsCache.invalidate(event);
+		if (unsavedChanges != null) {
+			unsavedChanges.remove(formatEventForFile(event));
+		}
+		writeJournal(EventJournal.REMOVE, event);
 	}
 
 	/**
-	 * Adds a new event to the calendar.
+	 * Removes an event from the calendar.
 	 * 
-	 * @param event: the event to be added
+	 * @param event: the event to remove
+	 * @return true if the event was in the calendar, false otherwise
 	 */
-	public void addEvent(Event event) {
-		events.add(event);
+	public boolean removeEvent(Event event) {
+		long start = metrics == null ? 0 : System.nanoTime();
+		boolean removed = store.remove(event);
+		if (removed) {
+			eventRemoved(event);
+		}
+		if (metrics != null) {
+			metrics.record(CalendarMetrics.Operation.REMOVE_EVENT, start, removed ? 1 : 0);
+		}
+		return removed;
+	}
+
+	/**
+	 * Removes many events from the calendar in a single pass over the events list,
+	 * instead of one list removal per event.
+	 * 
+	 * @param toRemove: the events to remove; events not in the calendar are ignored
+	 * @return the number of events removed
+	 */
+	public int removeEvents(Collection<Event> toRemove) {
+		long start = metrics == null ? 0 : System.nanoTime();
+		List<Event> removed = store.removeAll(toRemove);
+		for (Event event : removed) {
+			eventRemoved(event);
+		}
+		if (metrics != null) {
+			metrics.record(CalendarMetrics.Operation.REMOVE_EVENT, start, removed.size());
+		}
+		return removed.size();
+	}
+
+	/**
+	 * Deletes every event, one-time or recurring, whose name matches one of the
+	 * given names (ignoring case), in a single pass over the events list.
+	 * 
+	 * @param eventNames: the names of the events to delete
+	 * @return the number of events deleted
+	 */
+	public int deleteEventsByNames(Collection<String> eventNames) {
+		List<Event> toRemove = new ArrayList<>();
+		for (String eventName : eventNames) {
+			toRemove.addAll(store.named(eventName));
+		}
+		return removeEvents(toRemove);
+	}
+
+	/**
+	 * Restores the calendar from a snapshot and journal, then records every
+	 * following change in the journal as it happens. If the snapshot exists its
+	 * events are added to the calendar; the journal entries written after it are
+	 * then replayed on top.
+	 * 
+	 * @param snapshotFile: the snapshot file path, written on compaction
+	 * @param journalFile:  the journal file path, created if missing
+	 */
+	public void openJournal(String snapshotFile, String journalFile) {
+		try {
+			long snapshotSequence = 0;
+			Path snapshotPath = Paths.get(snapshotFile);
+			if (Files.exists(snapshotPath)) {
+				EventSnapshot snapshot = EventSnapshot.open(snapshotPath);
+				addSnapshot(snapshot);
+				snapshotSequence = snapshot.getJournalSequence();
+			}
+
+			// Replay before attaching, so the replayed changes are not logged again
+			this.journal = EventJournal.open(Paths.get(journalFile), snapshotSequence, JOURNAL_BATCH_SIZE,
+					JOURNAL_MAX_DELAY, this::addEvent, this::removeMatchingEvent);
+			this.snapshotFile = snapshotFile;
+		} catch (IOException e) {
+			System.out.println("An error occurred while opening the journal.");
+			e.printStackTrace();
+		}
+	}
+
+	/**
+	 * Writes all events to a new snapshot and empties the journal. A crash between
+	 * the two steps is safe: the snapshot remembers the last journal entry it
+	 * contains, and those entries are skipped on replay.
+	 */
+	public void compact() {
+		if (journal == null) {
+			return;
+		}
+		try {
+			journal.flush();
+			EventSnapshot.write(store.events(), Paths.get(snapshotFile), journal.getSequence());
+			journal.truncate();
+		} catch (IOException e) {
+			System.out.println("An error occurred while compacting the journal.");
+			e.printStackTrace();
+		}
+	}
+
+	/**
+	 * Writes the journal entries still waiting for their batch through to the
+	 * disk. Called after each interactive command, so a crash cannot lose a
+	 * change the user has already seen take effect.
+	 */
+	public void flushJournal() {
+		if (journal == null) {
+			return;
+		}
+		try {
+			journal.flush();
+		} catch (IOException e) {
+			System.out.println("An error occurred while flushing the journal.");
+			e.printStackTrace();
+		}
+	}
+
+	/**
+	 * Flushes and closes the journal. Later changes are no longer recorded.
+	 */
+	public void closeJournal() {
+		if (journal == null) {
+			return;
+		}
+		try {
+			journal.close();
+		} catch (IOException e) {
+			System.out.println("An error occurred while closing the journal.");
+			e.printStackTrace();
+		}
+		journal = null;
+	}
+
+	/**
+	 * Records a change in the journal, compacting it once it grows long enough.
+	 * 
+	 * @param type:  EventJournal.ADD or EventJournal.REMOVE
+	 * @param event: the event that changed
+	 */
+	private void writeJournal(byte type, Event event) {
+		if (journal == null) {
+			return;
+		}
+		try {
+			journal.append(type, event);
+		} catch (IOException e) {
+			System.out.println("An error occurred while writing the journal.");
+			e.printStackTrace();
+			return;
+		}
+		if (journal.getEntries() >= COMPACT_AFTER_ENTRIES) {
+			compact();
+		}
+	}
+
+	/**
+	 * Removes the first event with the same values as the given one. Used when a
+	 * journal is replayed, since the replayed event is a copy.
+	 * 
+	 * @param removed: copy of the event to remove
+	 */
+	private void removeMatchingEvent(Event removed) {
+		// One-time events can be found by date, recurring ones by name
+		List<Event> candidates = removed.isRecurring() ? store.named(removed.getName())
+				: store.eventsOn(removed.getTimeInterval().getStartDate());
+		for (Event event : candidates) {
+			if (EventJournal.matches(event, removed)) {
+				removeEvent(event);
+				return;
+			}
+		}
 	}
 
 	/**
@@ -177,7 +381,7 @@ public class MyCalendar {
 	 * @param scanner: Scanner object to receive user input
 	 */
 	public void deleteEvent(Scanner scanner) {
-		System.out.println("[S]elected  [A]ll  [Dr]ecurring");
+		System.out.println("[S]elected  [A]ll  [R]ange  [Dr]ecurring");
 		String option = scanner.nextLine().trim().toUpperCase();
 
 		switch (option) {
@@ -188,6 +392,9 @@ public class MyCalendar {
 		case "A":
 			deleteAllEventsOnDate(scanner);
 			break;
+		case "R":
+			deleteEventsInRange(scanner);
+			break;
 		case "DR":
 			deleteRecurringEvent(scanner);
 			break;
@@ -222,22 +429,28 @@ public class MyCalendar {
 		System.out.println("Enter the name of the event to delete:");
 		String eventName = scanner.nextLine().trim();
 
-		boolean eventDeleted = false;
-		Iterator<Event> iterator = events.iterator();
-		while (iterator.hasNext()) {
-			Event event = iterator.next();
-			if (!event.isRecurring() && event.getName().equalsIgnoreCase(eventName)
-					&& event.getTimeInterval().getStartDate().equals(date)) {
-				iterator.remove();
-				eventDeleted = true;
-				System.out.println("Event '" + eventName + "' deleted.");
-				break;
-			}
+		if (deleteOneTimeEvent(date, eventName)) {
+			System.out.println("Event '" + eventName + "' deleted.");
+		} else {
+			System.out.println("Event not found.");
 		}
+	}
 
-		if (!eventDeleted) {
-			System.out.println("Event not found.");
+	/**
+	 * Deletes the first one-time event on a date with the given name (ignoring
+	 * case).
+	 * 
+	 * @param date:      date of the event
+	 * @param eventName: name of the event
+	 * @return true if an event was deleted, false otherwise
+	 */
+	public boolean deleteOneTimeEvent(LocalDate date, String eventName) {
+		for (Event event : store.named(eventName)) {
+			if (!event.isRecurring() && event.getTimeInterval().getStartDate().equals(date)) {
+				return removeEvent(event);
+			}
 		}
+		return false;
 	}
 
 	/**
@@ -250,20 +463,140 @@ public class MyCalendar {
 		String dateStr = scanner.nextLine();
 		LocalDate date = LocalDate.parse(dateStr, DateTimeFormatter.ofPattern("M/d/yyyy"));
 
-		boolean eventsDeleted = false;
-		Iterator<Event> iterator = events.iterator();
-		while (iterator.hasNext()) {
-			Event event = iterator.next();
-			if (!event.isRecurring() && event.getTimeInterval().getStartDate().equals(date)) {
-				iterator.remove();
-				eventsDeleted = true;
+		if (deleteOneTimeEventsOn(date) > 0) {
+			System.out.println("All one-time events on " + date + " deleted.");
+		} else {
+			System.out.println("No one-time events found on this date.");
+		}
+	}
+
+	/**
+	 * Deletes all one-time events on a specific date.
+	 * 
+	 * @param date: the date to clear
+	 * @return the number of events deleted
+	 */
+	public int deleteOneTimeEventsOn(LocalDate date) {
+		List<Event> toRemove = new ArrayList<>();
+		for (Event event : store.eventsOn(date)) {
+			if (!event.isRecurring()) {
+				toRemove.add(event);
 			}
 		}
+		return removeEvents(toRemove);
+	}
 
-		if (eventsDeleted) {
-			System.out.println("All one-time events on " + date + " deleted.");
+	/**
+	 * Deletes the events in a date range based on user input.
+	 * 
+	 * @param scanner: Scanner object to receive user input
+	 */
+	private void deleteEventsInRange(Scanner scanner) {
+		DateTimeFormatter formatter = DateTimeFormatter.ofPattern("M/d/yyyy");
+		System.out.println("Enter the first date [MM/DD/YYYY]:");
+		LocalDate from = LocalDate.parse(scanner.nextLine().trim(), formatter);
+		System.out.println("Enter the last date [MM/DD/YYYY]:");
+		LocalDate to = LocalDate.parse(scanner.nextLine().trim(), formatter);
+		if (to.isBefore(from)) {
+			System.out.println("The last date must not be before the first date.");
+			return;
+		}
+		System.out.println("Enter the name of the events to delete (leave blank for all):");
+		String eventName = scanner.nextLine().trim();
+		System.out.println("Also remove recurring events from these dates? [Y]es or [N]o");
+		boolean clipRecurring = scanner.nextLine().trim().equalsIgnoreCase("Y");
+
+		int changed = deleteEventsBetween(from, to, eventName.isEmpty() ? null : eventName, clipRecurring);
+		if (changed > 0) {
+			System.out.println(changed + " events deleted or shortened between " + from + " and " + to + ".");
 		} else {
-			System.out.println("No one-time events found on this date.");
+			System.out.println("No events found between these dates.");
+		}
+	}
+
+	/**
+	 * Deletes all one-time events between two dates, found through the date index
+	 * and removed in a single pass over the events list.
+	 * 
+	 * If clipRecurring is set, recurring events lose their days in the range as
+	 * well: an event entirely inside the range is deleted, one that overlaps the
+	 * start or the end of the range is shortened, and one that spans the whole
+	 * range is split into the part before it and the part after it. Shortened
+	 * events are replaced by new events at the end of the events list. Parts left
+	 * without any occurrence are dropped, and recurring events that do not occur
+	 * on any day of the range are left alone.
+	 * 
+	 * @param from:          first date (inclusive)
+	 * @param to:            last date (inclusive)
+	 * @param eventName:     only delete events with this name (ignoring case), or
+	 *                       null for all
+	 * @param clipRecurring: true to also remove recurring events from the range
+	 * @return the number of events deleted or shortened
+	 * @throws IllegalArgumentException if to is before from
+	 */
+	public int deleteEventsBetween(LocalDate from, LocalDate to, String eventName, boolean clipRecurring) {
+		if (to.isBefore(from)) {
+			throw new IllegalArgumentException("The last date " + to + " is before the first date " + from);
+		}
+		long fromDay = from.toEpochDay();
+		long toDay = to.toEpochDay();
+
+		List<Event> toRemove = new ArrayList<>();
+		for (Iterator<Map.Entry<Long, List<Event>>> days = store.oneTimeDays(fromDay, toDay); days.hasNext();) {
+			for (Event event : days.next().getValue()) {
+				if (eventName == null || event.getName().equalsIgnoreCase(eventName)) {
+					toRemove.add(event);
+				}
+			}
+		}
+
+		// Parts of recurring events outside the range, added back after the removal
+		List<Event> toAdd = new ArrayList<>();
+		if (clipRecurring) {
+			store.recurringBetween(fromDay, toDay, event -> {
+				if ((eventName == null || event.getName().equalsIgnoreCase(eventName))
+						&& occursBetween(event, fromDay, toDay)) {
+					toRemove.add(event);
+					if (event.getStartDate().isBefore(from)) {
+						addIfOccurring(toAdd, copyBetween(event, event.getStartDate(), from.minusDays(1)));
+					}
+					if (event.getEndDate().isAfter(to)) {
+						addIfOccurring(toAdd, copyBetween(event, to.plusDays(1), event.getEndDate()));
+					}
+				}
+			});
+		}
+
+		int changed = removeEvents(toRemove);
+		for (Event event : toAdd) {
+			addEvent(event);
+		}
+		return changed;
+	}
+
+	/**
+	 * Makes a copy of a recurring event that runs between other dates.
+	 */
+	private static Event copyBetween(Event event, LocalDate startDate, LocalDate endDate) {
+		TimeInterval timeInterval = new TimeInterval(startDate, event.getTimeInterval().getStartTime(), endDate,
+				event.getTimeInterval().getEndTime());
+		return new Event(event.getName(), timeInterval, event.getRecurringDays(), startDate, endDate);
+	}
+
+	/**
+	 * Checks whether a recurring event occurs on at least one day of a range.
+	 */
+	private static boolean occursBetween(Event event, long fromDay, long toDay) {
+		long first = Math.max(event.getFirstEpochDay(), fromDay);
+		return OccurrenceIterator.nextOccurrence(event, first) <= Math.min(event.getLastEpochDay(), toDay);
+	}
+
+	/**
+	 * Adds a recurring event to the list if it still occurs at least once.
+	 */
+	private static void addIfOccurring(List<Event> events, Event event) {
+		if (OccurrenceIterator.nextOccurrence(event, event.getFirstEpochDay()) <= event.getLastEpochDay()) {
+			events.add(event);
 		}
 	}
 
@@ -276,153 +609,461 @@ public class MyCalendar {
 		System.out.println("Enter the name of the recurring event to delete:");
 		String eventName = scanner.nextLine().trim();
 
-		boolean eventDeleted = false;
-		Iterator<Event> iterator = events.iterator();
-		while (iterator.hasNext()) {
-			Event event = iterator.next();
-			if (event.isRecurring() && event.getName().equalsIgnoreCase(eventName)) {
-				iterator.remove();
-				eventDeleted = true;
-				System.out.println("Recurring event '" + eventName + "' deleted.");
-				break;
-			}
+		if (deleteRecurringEventByName(eventName)) {
+			System.out.println("Recurring event '" + eventName + "' deleted.");
+		} else {
+			System.out.println("Recurring event not found.");
 		}
+	}
 
-		if (!eventDeleted) {
-			System.out.println("Recurring event not found.");
+	/**
+	 * Deletes the first recurring event with the given name (ignoring case).
+	 * 
+	 * @param eventName: name of the recurring event
+	 * @return true if an event was deleted, false otherwise
+	 */
+	public boolean deleteRecurringEventByName(String eventName) {
+		for (Event event : store.named(eventName)) {
+			if (event.isRecurring()) {
+				return removeEvent(event);
+			}
 		}
+		return false;
 	}
 
 	/**
 	 * Get all events on a specific date and return a list of all events that occur
-	 * on the specified date.
+	 * on the specified date. The lists of recently viewed dates are cached and
+	 * shared, so the returned list cannot be changed.
 	 *
 	 * @param date: date for which events should be retrieved
 	 * @return a list of events that occur on the specified date
 	 */
 	public List<Event> getEventsOnDate(LocalDate date) {
-		List<Event> eventsOnDate = new ArrayList<>();
+		long start = metrics == null ? 0 : System.nanoTime();
+		// Look the date up in the index instead of scanning every event
+		List<Event> events = dayEventsCache.get(date, store);
+		if (metrics != null) {
+			metrics.record(CalendarMetrics.Operation.GET_EVENTS_ON_DATE, start, events.size());
+		}
+		return events;
+	}
 
-		for (Event event : events) {
-			// Check for one-time events
-			if (!event.isRecurring() && event.getTimeInterval().getStartDate().equals(date)) {
-				eventsOnDate.add(event);
-			}
+	/**
+	 * Gets the counters of the cache behind getEventsOnDate. The cache keeps its
+	 * own lock, so this may be called from any thread at any time.
+	 *
+	 * @return the hits, misses and evictions of the day view cache
+	 */
+	public CacheStats getDayViewCacheStats() {
+		return dayEventsCache.getStats();
+	}
 
-			// Check for recurring events
-			if (event.isRecurring()) {
-				LocalDate startDate = event.getStartDate();
-				LocalDate endDate = event.getEndDate();
-				if (!date.isBefore(startDate) && !date.isAfter(endDate)) {
-					DayOfWeek dayOfWeek = date.getDayOfWeek();
-					for (DayOfWeek recurringDay : event.getRecurringDays()) {
-						if (dayOfWeek.equals(recurringDay)) {
-							eventsOnDate.add(event);
-							break; // Event occurs on this day
-						}
-					}
-				}
-			}
-		}
+	/**
+	 * Drops every date the day view cache holds, so the next getEventsOnDate of
+	 * each date asks the index again. The counters are kept.
+	 */
+	void clearDayViewCache() {
+		dayEventsCache.clear();
+	}
 
-		return eventsOnDate;
+	/**
+	 * Gets the number of events in the calendar.
+	 *
+	 * @return the number of one-time and recurring events
+	 */
+	public int getEventCount() {
+		return store.size();
 	}
 
 	/**
-	 * Displays the month view for the given date, showing all days of the month and
-	 * highlighting the current day and any days that have events.
+	 * Estimates the heap the events and their indexes take, for monitoring.
 	 *
-	 * @param date: date representing the month to display
+	 * @return the estimated size in bytes
 	 */
-	public void showMonth(LocalDate date) {
+	public long getEstimatedHeapBytes() {
+		return store.estimatedBytes();
+	}
 
-		// Get today's date
-		LocalDate today = LocalDate.now();
+	/**
+	 * Starts timing the main operations: loading, saving, adding and removing
+	 * events, the day and month views, occurrences and free slots. Until this is
+	 * called they are not timed at all.
+	 *
+	 * @return the metrics, which can be registered with JMX or printed
+	 */
+	public CalendarMetrics enableMetrics() {
+		if (metrics == null) {
+			metrics = new CalendarMetrics(this);
+		}
+		return metrics;
+	}
 
-		// Get the first day of the month and the total number of days in the month
-		LocalDate firstOfMonth = date.withDayOfMonth(1);
-		int monthLength = date.lengthOfMonth();
+	/**
+	 * Stops timing the operations, stops the periodic report and removes the
+	 * MBeans, if any.
+	 */
+	public void disableMetrics() {
+		if (metrics == null) {
+			return;
+		}
+		metrics.stopReporting();
+		metrics.unregisterMBeans();
+		metrics = null;
+	}
 
-		// Get the day of the week the month starts on (1 = Monday, 7 = Sunday)
-		int startDayOfWeek = firstOfMonth.getDayOfWeek().getValue();
+	/**
+	 * Gets the metrics started by enableMetrics.
+	 *
+	 * @return the metrics, or null if they are not enabled
+	 */
+	public CalendarMetrics getMetrics() {
+		return metrics;
+	}
 
-		System.out.println("      " + date.getMonth().getDisplayName(TextStyle.FULL, Locale.US) + " " + date.getYear());
-		System.out.println("Su Mo Tu We Th Fr Sa");
+	/**
+	 * Gets the occurrences of all events between two dates in chronological order
+	 * (by date, then start time). The stream is lazy: recurring events are
+	 * stepped forward one occurrence at a time, so even a range of many years
+	 * uses memory only for the events, not for their occurrences. The calendar
+	 * must not change while the stream is being consumed.
+	 * 
+	 * @param from: first date (inclusive)
+	 * @param to:   last date (inclusive)
+	 * @return the occurrences in chronological order
+	 */
+	public Stream<Occurrence> occurrences(LocalDate from, LocalDate to) {
+		Iterator<Occurrence> iterator = new OccurrenceIterator(store, from, to);
+		return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator,
+				Spliterator.ORDERED | Spliterator.NONNULL), false);
+	}
 
-		// Adjust startDayOfWeek to work with a Sunday-starting week (Sunday = 0)
-		int adjustedStartDayOfWeek = (startDayOfWeek == 7) ? 0 : startDayOfWeek;
+	/**
+	 * Passes the occurrences of all events between two dates to the consumer in
+	 * chronological order (by date, then start time), without collecting them.
+	 * 
+	 * @param from:   first date (inclusive)
+	 * @param to:     last date (inclusive)
+	 * @param action: receives each occurrence
+	 */
+	public void forEachOccurrence(LocalDate from, LocalDate to, Consumer<Occurrence> action) {
+		if (metrics == null) {
+			new OccurrenceIterator(store, from, to).forEachRemaining(action);
+			return;
+		}
+		long start = System.nanoTime();
+		long[] occurrences = new long[1];
+		new OccurrenceIterator(store, from, to).forEachRemaining(occurrence -> {
+			occurrences[0]++;
+			action.accept(occurrence);
+		});
+		metrics.record(CalendarMetrics.Operation.FOR_EACH_OCCURRENCE, start, occurrences[0]);
+	}
 
-		// Print initial spaces for the first week (if the month doesn't start on
-		// Sunday)
-		for (int i = 0; i < adjustedStartDayOfWeek; i++) {
-			System.out.print("   ");
+	/**
+	 * Gets the first occurrences of all events between two dates in chronological
+	 * order (by date, then start time). The walk stops as soon as max occurrences
+	 * are found, so its cost depends on max rather than on the length of the
+	 * range.
+	 * 
+	 * @param from: first date (inclusive)
+	 * @param to:   last date (inclusive)
+	 * @param max:  the most occurrences to return
+	 * @return up to max occurrences, in chronological order
+	 */
+	public List<Occurrence> getOccurrences(LocalDate from, LocalDate to, int max) {
+		long start = metrics == null ? 0 : System.nanoTime();
+		List<Occurrence> occurrences = new ArrayList<>(Math.min(max, 1024));
+		Iterator<Occurrence> iterator = new OccurrenceIterator(store, from, to);
+		while (occurrences.size() < max && iterator.hasNext()) {
+			occurrences.add(iterator.next());
+		}
+		if (metrics != null) {
+			metrics.record(CalendarMetrics.Operation.FOR_EACH_OCCURRENCE, start, occurrences.size());
 		}
+		return occurrences;
+	}
 
-		// Iterate over the days of the month
-		for (int day = 1; day <= monthLength; day++) {
-			LocalDate currentDate = firstOfMonth.withDayOfMonth(day);
+	/**
+	 * Finds free gaps between events, for example every gap of at least 45 minutes
+	 * on weekdays between 9:00 and 17:00 over the next three months. Gaps are
+	 * returned in chronological order, each as long as the free time allows, and
+	 * never touch an event, so any part of a gap can be booked without a
+	 * conflict.
+	 * 
+	 * @param from:        first date to search (inclusive)
+	 * @param to:          last date to search (inclusive)
+	 * @param windowStart: earliest time of day a slot may start
+	 * @param windowEnd:   latest time of day a slot may end
+	 * @param length:      minimum length of a slot
+	 * @param days:        days of the week to search
+	 * @param limit:       maximum number of gaps to return
+	 * @return the free gaps
+	 */
+	public List<TimeInterval> findFreeSlots(LocalDate from, LocalDate to, LocalTime windowStart, LocalTime windowEnd,
+			Duration length, Set<DayOfWeek> days, int limit) {
+		long start = metrics == null ? 0 : System.nanoTime();
+		int minutes = (int) ((length.getSeconds() + 59) / 60);
+		int dayMask = Event.dayMaskOf(days.toArray(new DayOfWeek[0]));
+		FreeSlotFinder finder = new FreeSlotFinder(store);
+		List<TimeInterval> slots = finder.find(from, to, windowStart, windowEnd, minutes, dayMask, limit);
+		if (metrics != null) {
+			metrics.record(CalendarMetrics.Operation.FIND_FREE_SLOTS, start, finder.getScanned());
+		}
+		return slots;
+	}
 
-			// Check if there are events on this day and highlight if needed
-			if (today.getDayOfMonth() == day && today.getMonth() == date.getMonth() && hasEventsOnDate(currentDate)) {
-				System.out.printf("[{%2d}] ", day); // Highlight the day with curly braces
-			} else if (today.getDayOfMonth() == day && today.getMonth() == date.getMonth()) {
-				System.out.printf("[%2d] ", day);
+	/**
+	 * Gets the busy minutes of a date as a bitset, for quick overlap, free time
+	 * and busy percentage questions. The bitset is cached until an event on the
+	 * date is added or deleted, or the date is dropped to make room for others.
+	 * 
+	 * @param date: the date to look up
+	 * @return the occupancy of the date at one minute per bit
+	 */
+	public DayOccupancy getDayOccupancy(LocalDate date) {
+		return dayCache.get(date, store);
+	}
 
-			} else if (hasEventsOnDate(currentDate)) {
-				System.out.printf("{%2d} ", day); // Highlight the day with curly braces
-			} else {
-				System.out.printf("%2d ", day); // Print the day normally
+	/**
+	 * Finds the first event on a date that overlaps a time span, the way
+	 * createEvent checks a new event. The date's minute bitset answers most
+	 * checks; the events are only compared when it shows a possible conflict.
+	 * 
+	 * @param date:      the date of the span
+	 * @param startTime: start of the span
+	 * @param endTime:   end of the span
+	 * @return the first overlapping event, or null if the span is free
+	 */
+	public Event findConflict(LocalDate date, LocalTime startTime, LocalTime endTime) {
+		if (getDayOccupancy(date).isFree(startTime, endTime)) {
+			return null;
+		}
+		TimeInterval timeInterval = new TimeInterval(date, startTime, date, endTime);
+		for (Event event : getEventsOnDate(date)) {
+			if (event.getTimeInterval().overlaps(timeInterval)) {
+				return event;
 			}
+		}
+		return null;
+	}
 
-			// Newline after Saturday (if day + adjustedStartDayOfWeek is divisible by 7)
-			if ((day + adjustedStartDayOfWeek) % 7 == 0) {
-				System.out.println();
+	/**
+	 * Marks the minutes between two dates in which this calendar has an event.
+	 * Bit (day * 1440 + minute) is set for each busy minute, counting days from
+	 * the first date; an event's start and end minute are both busy.
+	 * 
+	 * @param from: first date (inclusive)
+	 * @param to:   last date (inclusive)
+	 * @return the busy minutes of the range
+	 */
+	BitSet busyMinutes(LocalDate from, LocalDate to) {
+		long fromDay = from.toEpochDay();
+		BitSet busy = new BitSet((int) (to.toEpochDay() - fromDay + 1) * MINUTES_PER_DAY);
+		new OccurrenceIterator(store, from, to).forEachRemaining(occurrence -> {
+			TimeInterval timeInterval = occurrence.getEvent().getTimeInterval();
+			int dayStart = (int) (occurrence.getDate().toEpochDay() - fromDay) * MINUTES_PER_DAY;
+			int startMinute = timeInterval.getStartTime().toSecondOfDay() / 60;
+			int endMinute = Math.min((timeInterval.getEndTime().toSecondOfDay() + 59) / 60, MINUTES_PER_DAY - 1);
+			if (startMinute <= endMinute) {
+				busy.set(dayStart + startMinute, dayStart + endMinute + 1);
 			}
+		});
+		return busy;
+	}
+
+	/**
+	 * Finds the first free slot of the given length, as for findFreeSlots.
+	 * 
+	 * @param from:        first date to search (inclusive)
+	 * @param to:          last date to search (inclusive)
+	 * @param windowStart: earliest time of day the slot may start
+	 * @param windowEnd:   latest time of day the slot may end
+	 * @param length:      length of the slot
+	 * @param days:        days of the week to search
+	 * @return the slot, exactly as long as asked, or null if there is none
+	 */
+	public TimeInterval findFirstFreeSlot(LocalDate from, LocalDate to, LocalTime windowStart, LocalTime windowEnd,
+			Duration length, Set<DayOfWeek> days) {
+		List<TimeInterval> slots = findFreeSlots(from, to, windowStart, windowEnd, length, days, 1);
+		if (slots.isEmpty()) {
+			return null;
 		}
-		System.out.println(); // Final newline after the month
+		TimeInterval gap = slots.get(0);
+		LocalTime end = gap.getStartTime().plusMinutes((length.getSeconds() + 59) / 60);
+		return new TimeInterval(gap.getStartDate(), gap.getStartTime(), gap.getEndDate(), end);
 	}
 
 	/**
-	 * Checks if there are any events scheduled on the given date.
+	 * Checks a batch of new events for time conflicts with the calendar and with
+	 * each other, without changing the calendar. Events are decided in batch
+	 * order, so of two overlapping new events the earlier one is accepted.
 	 * 
-	 * @param date: date to check for events
-	 * @return true if there are events scheduled on the date, false otherwise
+	 * @param candidates: the new events to check
+	 * @return the accepted events and the rejected events with their conflicts
 	 */
-	private boolean hasEventsOnDate(LocalDate date) {
-		// Check if there are any events scheduled on the given date
-		for (Event event : events) {
-			if (!event.isRecurring() && event.getTimeInterval().getStartDate().equals(date)) {
-				return true; // One-time event matches
-			}
-			if (event.isRecurring()) {
-				// Check if the recurring event occurs on the given date
-				if (isEventOnDate(event, date)) {
-					return true;
-				}
-			}
+	public ConflictReport findConflicts(List<Event> candidates) {
+		return new ConflictDetector(store).check(candidates);
+	}
+
+	/**
+	 * Adds every event of a batch that does not conflict with the calendar or with
+	 * an earlier event of the batch.
+	 * 
+	 * @param candidates: the new events to import
+	 * @return the accepted (added) events and the rejected events with their
+	 *         conflicts
+	 */
+	public ConflictReport importEvents(List<Event> candidates) {
+		ConflictReport report = new ConflictDetector(store).check(candidates);
+		for (Event event : report.getAccepted()) {
+			addEvent(event);
 		}
-		return false;
+		return report;
 	}
 
 	/**
-	 * Checks if the given recurring event occurs on the specified date.
+	 * Gets the store holding the calendar's events.
 	 * 
-	 * @param event: recurring event to check
-	 * @param date:  date to check for the event
-	 * @return true if the event occurs on the date, false otherwise
+	 * @return the event store
 	 */
-	private boolean isEventOnDate(Event event, LocalDate date) {
-		// Check if the given date falls within the recurring event's range
-		if (!date.isBefore(event.getStartDate()) && !date.isAfter(event.getEndDate())) {
-			// Check if the event occurs on the same day of the week
-			DayOfWeek dayOfWeek = date.getDayOfWeek();
-			for (DayOfWeek recurringDay : event.getRecurringDays()) {
-				if (dayOfWeek.equals(recurringDay)) {
-					return true;
-				}
-			}
+	EventStore getStore() {
+		return store;
+	}
+
+	/**
+	 * Displays the month view for the given date, showing all days of the month and
+	 * highlighting the current day and any days that have events.
+	 *
+	 * @param date: date representing the month to display
+	 */
+	public void showMonth(LocalDate date) {
+		try {
+			showMonth(date, System.out);
+		} catch (IOException e) {
+			System.out.println("An error occurred while displaying the month.");
+			e.printStackTrace();
 		}
-		return false;
+	}
+
+	/**
+	 * Renders the month view for the given date and writes it to the output in one
+	 * call. The text is the same as showMonth prints.
+	 *
+	 * @param date: date representing the month to display
+	 * @param out:  where to write the view
+	 * @throws IOException if the output cannot be written
+	 */
+	public void showMonth(LocalDate date, Appendable out) throws IOException {
+		showMonths(date, 1, out);
+	}
+
+	/**
+	 * Displays consecutive months starting with the month of the given date, the
+	 * same as calling showMonth for each of them.
+	 *
+	 * @param date:  date in the first month to display
+	 * @param count: number of months to display
+	 * @throws IllegalArgumentException if count is less than 1
+	 */
+	public void showMonths(LocalDate date, int count) {
+		try {
+			showMonths(date, count, System.out);
+		} catch (IOException e) {
+			System.out.println("An error occurred while displaying the months.");
+			e.printStackTrace();
+		}
+	}
+
+	/**
+	 * Renders consecutive months into one buffer and writes them to the output in
+	 * one call. The busy days of all the months are computed together in a single
+	 * pass over the events.
+	 *
+	 * @param date:  date in the first month to display
+	 * @param count: number of months to display
+	 * @param out:   where to write the view
+	 * @throws IOException if the output cannot be written
+	 * @throws IllegalArgumentException if count is less than 1
+	 */
+	public void showMonths(LocalDate date, int count, Appendable out) throws IOException {
+		checkMonthCount(count);
+		long start = metrics == null ? 0 : System.nanoTime();
+		YearMonth first = YearMonth.from(date);
+		int[] busyDays = monthCache.get(first, count, store);
+		LocalDate today = LocalDate.now();
+
+		CalendarRenderer renderer = RENDERER.get();
+		int busyCount = 0;
+		for (int i = 0; i < count; i++) {
+			renderMonth(renderer, first.plusMonths(i).atDay(1), busyDays[i], today);
+			busyCount += Integer.bitCount(busyDays[i]);
+		}
+		renderer.writeTo(out);
+		if (metrics != null) {
+			// The view walks one occupancy entry per busy day
+			metrics.record(CalendarMetrics.Operation.SHOW_MONTH, start, busyCount);
+		}
+	}
+
+	/**
+	 * Computes the busy days of consecutive months ahead of showing them, in one
+	 * pass for the months not yet cached.
+	 *
+	 * @param date:  date in the first month
+	 * @param count: number of months
+	 * @throws IllegalArgumentException if count is less than 1
+	 */
+	public void prefetchMonths(LocalDate date, int count) {
+		checkMonthCount(count);
+		monthCache.get(YearMonth.from(date), count, store);
+	}
+
+	/**
+	 * Gets the busy days of consecutive months, the days the month view marks:
+	 * bit (day - 1) of a month's value is set when at least one event occurs on
+	 * that day. Months not yet cached are computed together in one pass.
+	 *
+	 * @param date:  date in the first month
+	 * @param count: number of months
+	 * @return the busy days of each month, in order
+	 * @throws IllegalArgumentException if count is less than 1
+	 */
+	public int[] getMonthOccupancy(LocalDate date, int count) {
+		checkMonthCount(count);
+		return monthCache.get(YearMonth.from(date), count, store);
+	}
+
+	private static void checkMonthCount(int count) {
+		if (count < 1) {
+			throw new IllegalArgumentException("The month count must be at least 1, was " + count);
+		}
+	}
+
+	/**
+	 * Displays the twelve months of a year.
+	 *
+	 * @param year: the year to display
+	 */
+	public void showYear(int year) {
+		showMonths(LocalDate.of(year, 1, 1), 12);
+	}
+
+	/**
+	 * Adds the month view for the given date to a renderer.
+	 *
+	 * @param renderer: renderer to add to
+	 * @param date:     date representing the month to display
+	 * @param busyDays: days of the month with events, bit day - 1 set for each
+	 * @param today:    today's date, marked if it falls in the same month
+	 */
+	private void renderMonth(CalendarRenderer renderer, LocalDate date, int busyDays, LocalDate today) {
+		String title = "      " + date.getMonth().getDisplayName(TextStyle.FULL, Locale.US) + " " + date.getYear();
+
+		// Today is marked by month and day, as the month view always has
+		int todayOfMonth = today.getMonth() == date.getMonth() ? today.getDayOfMonth() : 0;
+
+		renderer.appendMonth(title, date.withDayOfMonth(1), busyDays, todayOfMonth);
 	}
 
 	/**
@@ -433,7 +1074,7 @@ public class MyCalendar {
 		System.out.println("\nALL EVENTS:");
 
 		System.out.println("\nONE-TIME EVENTS:");
-		for (Event event : events) {
+		for (Event event : store.events()) {
 			if (!event.isRecurring()) {
 				// One-time event
 				LocalDate eventDate = event.getTimeInterval().getStartDate();
@@ -445,7 +1086,7 @@ public class MyCalendar {
 		}
 
 		System.out.println("\nRECURRING EVENTS:");
-		for (Event event : events) {
+		for (Event event : store.events()) {
 			if (event.isRecurring()) {
 				// Recurring event
 				DayOfWeek[] recurringDays = event.getRecurringDays();
@@ -468,22 +1109,217 @@ public class MyCalendar {
 	}
 
 	/**
-	 * Saves all events to output file.
+	 * Saves all events to output file. The file is written under a temporary
+	 * name and renamed over the old one, so a crash never leaves it half
+	 * written. From then on the calendar tracks its changes, so that
+	 * saveChangesToFile can save just those.
 	 * 
 	 * @param filename: the file path to save the events to
 	 */
 	public void saveEventsToFile(String filename) {
+		long start = metrics == null ? 0 : System.nanoTime();
 		try {
-			BufferedWriter writer = new BufferedWriter(new FileWriter(filename));
-			for (Event event : events) {
-				writer.write(formatEventForFile(event));
-				writer.newLine();
-			}
-			writer.close();
+			EventDeltaFile file = deltaFiles.computeIfAbsent(Paths.get(filename), EventDeltaFile::new);
+			file.writeBase(store.events(), this::formatEventForFile);
+			trackChanges(file);
 		} catch (IOException e) {
 			System.out.println("An error occurred while saving events to file.");
 			e.printStackTrace();
 		}
+		recordTransfer(CalendarMetrics.Operation.SAVE_EVENTS, start, store.size(), filename);
+	}
+
+	/**
+	 * Saves only the events added and deleted since the last save, as a delta
+	 * file next to the output file (filename.delta), so the time taken depends
+	 * on the number of changes rather than the size of the calendar. If the file
+	 * was not last saved in full by this calendar, all events are saved as
+	 * saveEventsToFile does, which also replaces any delta left by an earlier
+	 * session. The delta is applied to the file by mergeChanges or by a
+	 * background merge.
+	 * 
+	 * @param filename: the file path to save the events to
+	 */
+	public void saveChangesToFile(String filename) {
+		EventDeltaFile file = savedFile;
+		if (file == null || !file.getBase().equals(Paths.get(filename))) {
+			saveEventsToFile(filename);
+			return;
+		}
+		long start = metrics == null ? 0 : System.nanoTime();
+		int changes = unsavedChanges.size();
+		try {
+			long bytes = file.append(unsavedChanges);
+			unsavedChanges.clear();
+			if (metrics != null) {
+				metrics.record(CalendarMetrics.Operation.SAVE_CHANGES, start, changes);
+				metrics.recordBytes(CalendarMetrics.Operation.SAVE_CHANGES, bytes);
+			}
+		} catch (IOException e) {
+			// The changes stay unsaved and are tried again by the next save
+			System.out.println("An error occurred while saving changes to file.");
+			e.printStackTrace();
+		}
+	}
+
+	/**
+	 * Takes over an output file saved by an earlier session, so that
+	 * saveChangesToFile can append this session's changes to it instead of
+	 * writing every event again. The file is taken over only if, with its delta
+	 * applied, it holds exactly the calendar's events in calendar order, as it
+	 * does when the calendar was restored from the journal of the session that
+	 * saved it.
+	 * 
+	 * @param filename: the file path the events were saved to
+	 * @return true if the file was taken over, false otherwise
+	 */
+	public boolean adoptSavedFile(String filename) {
+		try {
+			EventDeltaFile file = deltaFiles.computeIfAbsent(Paths.get(filename), EventDeltaFile::new);
+			if (file.adopt(store.events(), this::formatEventForFile)) {
+				trackChanges(file);
+				return true;
+			}
+		} catch (IOException e) {
+			System.out.println("An error occurred while reading the saved events file.");
+			e.printStackTrace();
+		}
+		return false;
+	}
+
+	/**
+	 * Applies the saved changes to the output file last saved in full, replacing
+	 * the file in one rename. Safe to call from any thread; it does not read the
+	 * calendar's events.
+	 */
+	public void mergeChanges() {
+		EventDeltaFile file = savedFile;
+		if (file == null) {
+			return;
+		}
+		long start = metrics == null ? 0 : System.nanoTime();
+		try {
+			boolean merged = file.merge();
+			CalendarMetrics current = metrics;
+			if (merged && current != null) {
+				current.record(CalendarMetrics.Operation.MERGE_CHANGES, start, 0);
+				current.recordBytes(CalendarMetrics.Operation.MERGE_CHANGES, Files.size(file.getBase()));
+			}
+		} catch (IOException e) {
+			System.out.println("An error occurred while merging the saved changes.");
+			e.printStackTrace();
+		}
+	}
+
+	/**
+	 * Merges the saved changes into the output file on a background thread every
+	 * period, until stopMergingChanges is called.
+	 * 
+	 * @param period: time between merges
+	 */
+	public void startMergingChanges(Duration period) {
+		stopMergingChanges();
+		merger = Executors.newSingleThreadScheduledExecutor(task -> {
+			Thread thread = new Thread(task, "calendar-merge");
+			thread.setDaemon(true);
+			return thread;
+		});
+		long millis = period.toMillis();
+		merger.scheduleWithFixedDelay(this::mergeChanges, millis, millis, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Stops the background merge, if it is running. A merge in progress is
+	 * finished first.
+	 */
+	public void stopMergingChanges() {
+		if (merger == null) {
+			return;
+		}
+		merger.shutdown();
+		try {
+			merger.awaitTermination(1, TimeUnit.MINUTES);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		merger = null;
+	}
+
+	/**
+	 * Makes the given file the one changes are saved to, with no unsaved changes.
+	 */
+	private void trackChanges(EventDeltaFile file) {
+		savedFile = file;
+		if (unsavedChanges == null) {
+			unsavedChanges = new EventDeltaFile.Changes();
+		} else {
+			unsavedChanges.clear();
+		}
+	}
+
+	/**
+	 * Records a load or save of a text file, with the size of the file.
+	 */
+	private void recordTransfer(CalendarMetrics.Operation operation, long start, int records, String filename) {
+		if (metrics == null) {
+			return;
+		}
+		metrics.record(operation, start, records);
+		try {
+			metrics.recordBytes(operation, Files.size(Paths.get(filename)));
+		} catch (IOException e) {
+			// A file that could not be read or written moved no bytes
+		}
+	}
+
+	/**
+	 * Saves all events to a binary snapshot file, which loads much faster than the
+	 * text format.
+	 * 
+	 * @param filename: the file path to save the snapshot to
+	 */
+	public void saveSnapshot(String filename) {
+		try {
+			EventSnapshot.write(store.events(), Paths.get(filename), journal == null ? 0 : journal.getSequence());
+		} catch (IOException e) {
+			System.out.println("An error occurred while saving the snapshot.");
+			e.printStackTrace();
+		}
+	}
+
+	/**
+	 * Loads events from a binary snapshot file written by saveSnapshot.
+	 * 
+	 * @param filename: the file path of the snapshot
+	 */
+	public void loadSnapshot(String filename) {
+		try {
+			addSnapshot(EventSnapshot.open(Paths.get(filename)));
+		} catch (IOException e) {
+			System.out.println("An error occurred while loading the snapshot.");
+			e.printStackTrace();
+		}
+	}
+
+	/**
+	 * Adds the events of a snapshot. The store takes them all at once and the
+	 * caches are cleared once at the end, instead of per event. When the calendar
+	 * journals its changes or tracks them for the saved file, each event goes
+	 * through addEvent so it is recorded.
+	 * 
+	 * @param snapshot: the snapshot to add
+	 */
+	private void addSnapshot(EventSnapshot snapshot) {
+		if (journal != null || unsavedChanges != null) {
+			for (int i = 0; i < snapshot.size(); i++) {
+				addEvent(snapshot.get(i));
+			}
+			return;
+		}
+		store.addAll(snapshot);
+		monthCache.clear();
+		dayCache.clear();
+		dayEventsCache.clear();
 	}
 
 	/**
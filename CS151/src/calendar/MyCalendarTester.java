@@ -1,13 +1,26 @@
 package calendar;
 
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
 import java.time.format.TextStyle;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Scanner;
 
+import javax.management.JMException;
+
 /**
  * MyCalendarTester is the main class for interacting with the calendar
  * application. This is user UI to viewing, creating new events, deleting
@@ -20,15 +33,48 @@ import java.util.Scanner;
 
 public class MyCalendarTester {
 
+	// Files used when no paths are given on the command line: the first event
+	// file, the snapshot and journal that keep the calendar's changes between
+	// sessions, and the event list saved on quit
+	private static final String EVENTS_FILE = "C:\\Users\\nghia\\git\\CalendarBuddy\\CS151\\src\\calendar\\events.txt";
+	private static final String SNAPSHOT_FILE = "C:\\Users\\nghia\\git\\CalendarBuddy\\CS151\\src\\calendar\\events.snapshot";
+	private static final String JOURNAL_FILE = "C:\\Users\\nghia\\git\\CalendarBuddy\\CS151\\src\\calendar\\events.journal";
+	private static final String OUTPUT_FILE = "C:\\Users\\nghia\\git\\CalendarBuddy\\CS151\\src\\calendar\\output.txt";
+
+	// Time between background merges of the saved event list's delta
+	private static final Duration MERGE_PERIOD = Duration.ofSeconds(30);
+
+	// Text buffer for the views
+	private static final CalendarRenderer RENDERER = new CalendarRenderer();
+
 	/**
 	 * Starting point of the application.
 	 * 
 	 * Displays the current month, loads events, and processes user input through
 	 * console.
 	 * 
+	 * Options: --events, --snapshot, --journal and --output replace the default
+	 * file paths. On quit only the changes of the session are saved, as a delta
+	 * next to the output file that is merged into it during the next session.
+	 * With --batch FILE (or - for standard input) the commands of the file are
+	 * run without prompts, see BatchCommandRunner; in batch mode only the files
+	 * given are used. With --metrics SECONDS the calendar's operations are
+	 * timed, published over JMX and printed to standard error every SECONDS
+	 * seconds.
+	 * 
 	 * @param args command line arguments
 	 */
 	public static void main(String[] args) {
+		String batchFile = option(args, "--batch");
+		if (batchFile != null) {
+			runBatch(batchFile, option(args, "--events"), option(args, "--snapshot"), option(args, "--journal"),
+					option(args, "--output"), option(args, "--metrics"));
+			return;
+		}
+		String eventsFile = orDefault(option(args, "--events"), EVENTS_FILE);
+		String snapshotFile = orDefault(option(args, "--snapshot"), SNAPSHOT_FILE);
+		String journalFile = orDefault(option(args, "--journal"), JOURNAL_FILE);
+		String outputFile = orDefault(option(args, "--output"), OUTPUT_FILE);
 
 		// Display today on calendar view
 		LocalDate today = LocalDate.now();
@@ -36,9 +82,20 @@ public class MyCalendarTester {
 
 		// Create calendar instance
 		MyCalendar calendar = new MyCalendar();
+		enableMetrics(calendar, option(args, "--metrics"));
+
+		// Load calendar from the event file the first time, from the snapshot after
+		// that, and replay the changes journaled since
+		if (!new File(snapshotFile).exists()) {
+			calendar.loadEvents(eventsFile);
+		}
+		calendar.openJournal(snapshotFile, journalFile);
 
-		// Load calendar
-		calendar.loadEvents("C:\\Users\\nghia\\git\\CalendarBuddy\\CS151\\src\\calendar\\events.txt");
+		// Keep saving to the event list of the last session if it still matches,
+		// so quitting only appends this session's changes, and fold the changes
+		// saved on earlier quits into it in the background
+		calendar.adoptSavedFile(outputFile);
+		calendar.startMergingChanges(MERGE_PERIOD);
 
 		// Print out string indicates loading successfully
 		System.out.println("\nLoading is done!\n");
@@ -72,7 +129,9 @@ public class MyCalendarTester {
 				deleteEvent(calendar, scanner);
 				break;
 			case "Q":
-				calendar.saveEventsToFile("C:\\Users\\nghia\\git\\CalendarBuddy\\CS151\\src\\calendar\\output.txt");
+				calendar.stopMergingChanges();
+				calendar.saveChangesToFile(outputFile);
+				calendar.closeJournal();
 				System.out.println("\nGood Bye!");
 				isRunning = false;
 				break;
@@ -80,12 +139,112 @@ public class MyCalendarTester {
 				System.out.println("Invalid option. Please choose again.");
 				break;
 			}
+
+			// Make the command's changes durable before waiting for the next one
+			calendar.flushJournal();
 		}
 
 		scanner.close();
 
 	}
 
+	/**
+	 * Runs a command file without prompts and reports how fast the commands ran.
+	 * The report goes to standard error, so the output of the commands can be
+	 * piped on by itself.
+	 * 
+	 * @param batchFile:    the command file, or - for standard input
+	 * @param eventsFile:   event file to load first, or null
+	 * @param snapshotFile: snapshot to restore and journal into, or null; given
+	 *                      together with journalFile
+	 * @param journalFile:  journal to replay and append to, or null
+	 * @param outputFile:   file to save the events to at the end, or null
+	 * @param metrics:      seconds between metrics reports, or null for none
+	 */
+	private static void runBatch(String batchFile, String eventsFile, String snapshotFile, String journalFile,
+			String outputFile, String metrics) {
+		// A journal needs its snapshot and the other way round; one alone would
+		// neither restore nor keep the changes of the run
+		if ((snapshotFile == null) != (journalFile == null)) {
+			System.err.println("Give both --snapshot and --journal, or neither.");
+			System.exit(1);
+		}
+		MyCalendar calendar = new MyCalendar();
+		enableMetrics(calendar, metrics);
+		if (snapshotFile != null && journalFile != null) {
+			if (eventsFile != null && !new File(snapshotFile).exists()) {
+				calendar.loadEvents(eventsFile);
+			}
+			calendar.openJournal(snapshotFile, journalFile);
+		} else if (eventsFile != null) {
+			calendar.loadEvents(eventsFile);
+		}
+
+		BatchCommandRunner runner = new BatchCommandRunner(calendar);
+		Writer output = new OutputStreamWriter(System.out);
+		long start = System.nanoTime();
+		try (BufferedReader in = batchFile.equals("-") ? new BufferedReader(new InputStreamReader(System.in))
+				: Files.newBufferedReader(Paths.get(batchFile))) {
+			runner.run(in, output);
+		} catch (IOException e) {
+			System.out.println("An error occurred while running the batch commands.");
+			e.printStackTrace();
+		}
+		double seconds = (System.nanoTime() - start) / 1e9;
+		System.err.printf("%d commands (%d failed) in %.3f s, %.0f commands/sec%n", runner.getCommands(),
+				runner.getFailures(), seconds, runner.getCommands() / Math.max(seconds, 1e-9));
+
+		if (outputFile != null) {
+			calendar.saveEventsToFile(outputFile);
+		}
+		calendar.closeJournal();
+		if (calendar.getMetrics() != null) {
+			System.err.print(calendar.getMetrics().report());
+			calendar.disableMetrics();
+		}
+	}
+
+	/**
+	 * Times the calendar's operations, registers the metrics with JMX and prints
+	 * them to standard error on a schedule.
+	 * 
+	 * @param calendar: the calendar to measure
+	 * @param seconds:  seconds between reports, or null to leave metrics off
+	 */
+	private static void enableMetrics(MyCalendar calendar, String seconds) {
+		if (seconds == null) {
+			return;
+		}
+		CalendarMetrics metrics = calendar.enableMetrics();
+		try {
+			metrics.registerMBeans("MyCalendar");
+		} catch (JMException e) {
+			System.out.println("An error occurred while registering the metrics with JMX.");
+			e.printStackTrace();
+		}
+		metrics.startReporting(Duration.ofSeconds(Long.parseLong(seconds)), System.err);
+	}
+
+	/**
+	 * Gets the value that follows an option on the command line.
+	 * 
+	 * @param args: command line arguments
+	 * @param name: the option, such as --events
+	 * @return the value, or null if the option is not given
+	 */
+	private static String option(String[] args, String name) {
+		for (int i = 0; i < args.length - 1; i++) {
+			if (args[i].equals(name)) {
+				return args[i + 1];
+			}
+		}
+		return null;
+	}
+
+	private static String orDefault(String value, String defaultValue) {
+		return value == null ? defaultValue : value;
+	}
+
 	/**
 	 * Displays the main menu options for the user to choose from.
 	 */
@@ -95,13 +254,13 @@ public class MyCalendarTester {
 	}
 
 	/**
-	 * View By option, allowing the user to select a day or month view.
+	 * View By option, allowing the user to select a day, month or year view.
 	 * 
 	 * @param calendar: MyCalendar instance
 	 * @param scanner:  Scanner for user input
 	 */
 	private static void viewByOption(MyCalendar calendar, Scanner scanner) {
-		System.out.println("[D]ay view or [M]onth view ?");
+		System.out.println("[D]ay view or [M]onth view or [Y]ear view ?");
 		String input = scanner.nextLine().trim().toUpperCase();
 
 		if (input.equals("D")) {
@@ -112,6 +271,11 @@ public class MyCalendarTester {
 			// Show current month's calendar in Month view
 			LocalDate today = LocalDate.now();
 			showMonthView(calendar, today, scanner);
+		} else if (input.equals("Y")) {
+			// Show all months of the current year
+			LocalDate today = LocalDate.now();
+			System.out.println("Year View for " + today.getYear());
+			calendar.showYear(today.getYear());
 		} else {
 			System.out.println("Invalid option. Returning to main menu.");
 		}
@@ -119,83 +283,98 @@ public class MyCalendarTester {
 
 	/**
 	 * Day view for a specified date, showing all events scheduled for that day.
+	 * Paging to the previous or next day repeats in a loop, so the stack does not
+	 * grow however long the user pages. The events of the neighboring days are
+	 * looked up while the user reads the current day, so paging shows them at once.
 	 * 
 	 * @param calendar: MyCalendar instance
-	 * @param datet:    date to display events
+	 * @param date:     date to display events
 	 * @param scanner:  Scanner for user input
 	 */
 	private static void showDayView(MyCalendar calendar, LocalDate date, Scanner scanner) {
-		System.out.println("Day View for " + date);
-		List<Event> events = calendar.getEventsOnDate(date);
-		if (events.isEmpty()) {
-			System.out.println("No events scheduled for " + date);
-		} else {
-			for (Event event : events) {
-				System.out.println(event.getName() + ": " + event.getTimeInterval().getStartTime() + " - "
-						+ event.getTimeInterval().getEndTime());
-			}
+		// Events of the shown day and its neighbors
+		Map<LocalDate, List<Event>> nearbyDays = new HashMap<>();
+
+		while (date != null) {
+			List<Event> events = nearbyDays.computeIfAbsent(date, calendar::getEventsOnDate);
+			print(RENDERER.appendDay(date, events));
+
+			// Keep only the neighbors of the shown day and fetch the missing ones
+			LocalDate shown = date;
+			nearbyDays.keySet().removeIf(day -> Math.abs(day.toEpochDay() - shown.toEpochDay()) > 1);
+			nearbyDays.computeIfAbsent(date.minusDays(1), calendar::getEventsOnDate);
+			nearbyDays.computeIfAbsent(date.plusDays(1), calendar::getEventsOnDate);
+
+			date = handleDayNavigation(date, scanner);
 		}
-		handleDayNavigation(calendar, date, scanner);
 	}
 
 	/**
-	 * Month view for a specified date, highlighting days with events.
+	 * Month view for a specified date, highlighting days with events. Paging
+	 * repeats in a loop like the day view, and the busy days of the neighboring
+	 * months are computed ahead in the same pass as the shown month.
 	 * 
 	 * @param calendar: MyCalendar instance
 	 * @param date:     date of the month to display
 	 * @param scanner:  Scanner for user input
 	 */
 	private static void showMonthView(MyCalendar calendar, LocalDate date, Scanner scanner) {
-		System.out.println("Month View for " + date.getMonth() + " " + date.getYear());
-		calendar.showMonth(date);
+		while (date != null) {
+			calendar.prefetchMonths(date.minusMonths(1), 3);
 
-		handleMonthNavigation(calendar, date, scanner);
+			System.out.println("Month View for " + date.getMonth() + " " + date.getYear());
+			calendar.showMonth(date);
+
+			date = handleMonthNavigation(date, scanner);
+		}
 	}
 
 	/**
 	 * Handles navigation in the Month view, allowing the user to move to the
 	 * previous or next month.
 	 * 
-	 * @param calendar: MyCalendar instance
-	 * @param date:     date currently displayed in the month view
-	 * @param scanner:  Scanner for user input
+	 * @param date:    date currently displayed in the month view
+	 * @param scanner: Scanner for user input
+	 * @return a date in the month to show next, or null to return to the main menu
 	 */
-	private static void handleMonthNavigation(MyCalendar calendar, LocalDate date, Scanner scanner) {
+	private static LocalDate handleMonthNavigation(LocalDate date, Scanner scanner) {
 		System.out.println("[P]revious or [N]ext or [G]o back to main menu ?");
 		String input = scanner.nextLine().trim().toUpperCase();
 
 		if (input.equals("P")) {
-			showMonthView(calendar, date.minusMonths(1), scanner); // Show previous month
+			return date.minusMonths(1); // Show previous month
 		} else if (input.equals("N")) {
-			showMonthView(calendar, date.plusMonths(1), scanner); // Show next month
+			return date.plusMonths(1); // Show next month
 		} else if (input.equals("G")) {
 			System.out.println("Returning to main menu.");
 		} else {
 			System.out.println("Invalid option. Returning to main menu.");
 		}
+		return null;
 	}
 
 	/**
 	 * Navigation in the Day view, allowing the user to move to the previous or next
 	 * day.
 	 * 
-	 * @param calendar: MyCalendar instance
-	 * @param date:     date currently displayed in the day view
-	 * @param scanner:  Scanner for user input
+	 * @param date:    date currently displayed in the day view
+	 * @param scanner: Scanner for user input
+	 * @return the date to show next, or null to return to the main menu
 	 */
-	private static void handleDayNavigation(MyCalendar calendar, LocalDate date, Scanner scanner) {
+	private static LocalDate handleDayNavigation(LocalDate date, Scanner scanner) {
 		System.out.println("[P]revious or [N]ext or [G]o back to the main menu ?");
 		String input = scanner.nextLine().trim().toUpperCase();
 
 		if (input.equals("P")) {
-			showDayView(calendar, date.minusDays(1), scanner); // Show previous day
+			return date.minusDays(1); // Show previous day
 		} else if (input.equals("N")) {
-			showDayView(calendar, date.plusDays(1), scanner); // Show next day
+			return date.plusDays(1); // Show next day
 		} else if (input.equals("G")) {
 			System.out.println("Returning to main menu.");
 		} else {
 			System.out.println("Invalid option. Returning to main menu.");
 		}
+		return null;
 	}
 
 	/**
@@ -225,15 +404,12 @@ public class MyCalendarTester {
 
 			// Check for conflicts with existing events on the same date
 			boolean isConflicted = false;
-			List<Event> eventsOnDate = calendar.getEventsOnDate(date);
-			for (Event existingEvent : eventsOnDate) {
-				if (existingEvent.getTimeInterval().overlaps(timeInterval)) {
-					isConflicted = true;
-					System.out.println("Time conflict detected with event: " + existingEvent.getName() + " ("
-							+ existingEvent.getTimeInterval().getStartTime() + " - "
-							+ existingEvent.getTimeInterval().getEndTime() + ")");
-					break;
-				}
+			Event existingEvent = calendar.findConflict(date, startTime, endTime);
+			if (existingEvent != null) {
+				isConflicted = true;
+				System.out.println("Time conflict detected with event: " + existingEvent.getName() + " ("
+						+ existingEvent.getTimeInterval().getStartTime() + " - "
+						+ existingEvent.getTimeInterval().getEndTime() + ")");
 			}
 
 			// If no conflicts, create and add the event
@@ -282,31 +458,21 @@ public class MyCalendarTester {
 	 */
 	public static void displayMonthCalendar(LocalDate today) {
 		LocalDate date = LocalDate.of(today.getYear(), today.getMonthValue(), 1);
-		System.out.println(date.getMonth().getDisplayName(TextStyle.FULL, Locale.US) + " " + date.getYear());
-		System.out.println("Su Mo Tu We Th Fr Sa");
-
-		int startDay = date.getDayOfWeek().getValue();
-		int daysInMonth = date.lengthOfMonth();
-
-		// Adjust start day index to match Java's start (1 = Monday) to our needs (0 =
-		// Sunday)
-		startDay = (startDay == 7) ? 0 : startDay;
-
-		for (int i = 0; i < startDay; i++) {
-			System.out.print("   ");
-		}
-
-		for (int day = 1; day <= daysInMonth; day++) {
-			String dayString = String.format("%2d", day);
-			if (day == today.getDayOfMonth()) {
-				dayString = "[" + dayString + "]";
-			}
-			System.out.print(dayString + " ");
+		String title = date.getMonth().getDisplayName(TextStyle.FULL, Locale.US) + " " + date.getYear();
+		print(RENDERER.appendMonth(title, date, 0, today.getDayOfMonth()));
+	}
 
-			if ((day + startDay) % 7 == 0) {
-				System.out.println();
-			}
+	/**
+	 * Writes a rendered view to the console in one call.
+	 * 
+	 * @param renderer: renderer holding the view
+	 */
+	private static void print(CalendarRenderer renderer) {
+		try {
+			renderer.writeTo(System.out);
+		} catch (IOException e) {
+			System.out.println("An error occurred while displaying the view.");
+			e.printStackTrace();
 		}
-		System.out.println();
 	}
 }
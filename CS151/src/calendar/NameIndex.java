@@ -0,0 +1,118 @@
+package calendar;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * NameIndex finds a calendar's events by name, ignoring case, without scanning
+ * the events list. Names are folded the same way String.equalsIgnoreCase
+ * compares them, so a lookup finds exactly the events the old scans found.
+ * Events with the same name are kept in the order they were added.
+ *
+ * An event stays filed under the name it had when it was added, the way
+ * EventIndex keeps it under its dates: lookups go by that name even if
+ * setName was called afterwards, and removing a renamed event still finds it.
+ *
+ * Programmed by: Nathan Dinh
+ *
+ * Date: 10/17/2026
+ */
+
+class NameIndex {
+
+	// Events by folded name
+	private final Map<String, List<Event>> byName;
+
+	/**
+	 * Default constructor with an empty index.
+	 */
+	NameIndex() {
+		this.byName = new HashMap<>();
+	}
+
+	/**
+	 * Adds an event under its name.
+	 *
+	 * @param event: the event to add
+	 */
+	void add(Event event) {
+		byName.computeIfAbsent(keyOf(event.getName()), key -> new ArrayList<>(1)).add(event);
+	}
+
+	/**
+	 * Removes an event from under the name it was added with.
+	 *
+	 * @param event: the event to remove
+	 */
+	void remove(Event event) {
+		String key = keyOf(event.getName());
+		if (removeFrom(key, event)) {
+			return;
+		}
+		// Renamed since it was added, so search the other names
+		for (String other : new ArrayList<>(byName.keySet())) {
+			if (!other.equals(key) && removeFrom(other, event)) {
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Removes an event from the list of one folded name.
+	 *
+	 * @return true if the event was under the name
+	 */
+	private boolean removeFrom(String key, Event event) {
+		List<Event> named = byName.get(key);
+		if (named == null) {
+			return false;
+		}
+		for (int i = 0; i < named.size(); i++) {
+			if (named.get(i) == event) {
+				named.remove(i);
+				if (named.isEmpty()) {
+					byName.remove(key);
+				}
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Gets the events with a name, ignoring case, in the order they were added.
+	 *
+	 * @param name: the name to look up
+	 * @return the events with the name (read only, may be empty)
+	 */
+	List<Event> named(String name) {
+		List<Event> named = byName.get(keyOf(name));
+		return named == null ? Collections.emptyList() : Collections.unmodifiableList(named);
+	}
+
+	/**
+	 * Removes every event from the index.
+	 */
+	void clear() {
+		byName.clear();
+	}
+
+	/**
+	 * Folds a name so that two names are equal ignoring case exactly when their
+	 * folded forms are equal. Like String.equalsIgnoreCase, each character is
+	 * compared through its upper and then lower case form.
+	 *
+	 * @param name: the name to fold
+	 * @return the folded name
+	 */
+	static String keyOf(String name) {
+		char[] chars = name.toCharArray();
+		for (int i = 0; i < chars.length; i++) {
+			chars[i] = Character.toLowerCase(Character.toUpperCase(chars[i]));
+		}
+		return new String(chars);
+	}
+}
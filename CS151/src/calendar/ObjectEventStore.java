@@ -0,0 +1,164 @@
+package calendar;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * ObjectEventStore keeps the calendar's events as the Event objects they were
+ * added as: a set in calendar order, the date index and the name index. Events
+ * are found again by identity, and the calendar hands out the stored objects
+ * themselves. This is the default store.
+ *
+ * Programmed by: Nathan Dinh
+ *
+ * Date: 10/17/2026
+ */
+
+class ObjectEventStore implements EventStore {
+
+	// Events in calendar order, with the date and name indexes over them. Event
+	// does not override equals, so the set finds events by identity and removes
+	// one without scanning the others
+	private final LinkedHashSet<Event> events;
+	private final EventIndex index;
+	private final NameIndex names;
+
+	// Estimated bytes of an Event with its TimeInterval and dates and times, the
+	// extra dates and day array of a recurring event, and an event's share of the
+	// set and the indexes
+	private static final int EVENT_BYTES = 56 + 32 + 4 * 24;
+	private static final int RECURRING_BYTES = 2 * 24 + 16 + 7 * 4;
+	private static final int INDEX_BYTES = 48 + 72 + 48;
+
+	/**
+	 * Default constructor with an empty store.
+	 */
+	ObjectEventStore() {
+		this.events = new LinkedHashSet<>();
+		this.index = new EventIndex();
+		this.names = new NameIndex();
+	}
+
+	@Override
+	public void add(Event event) {
+		// The date index rejects an event it already holds, before anything changes
+		index.add(event);
+		events.add(event);
+		names.add(event);
+	}
+
+	@Override
+	public void addAll(EventSnapshot snapshot) {
+		for (int i = 0; i < snapshot.size(); i++) {
+			add(snapshot.get(i));
+		}
+	}
+
+	@Override
+	public boolean remove(Event event) {
+		if (!events.remove(event)) {
+			return false;
+		}
+		index.remove(event);
+		names.remove(event);
+		return true;
+	}
+
+	@Override
+	public List<Event> removeAll(Collection<Event> toRemove) {
+		if (toRemove.isEmpty()) {
+			return Collections.emptyList();
+		}
+		Set<Event> removeSet = Collections.newSetFromMap(new IdentityHashMap<>());
+		List<Event> removed = new ArrayList<>(toRemove.size());
+		for (Event event : toRemove) {
+			if (events.contains(event) && removeSet.add(event)) {
+				removed.add(event);
+			}
+		}
+
+		// Report them in calendar order, then drop each without scanning the rest
+		removed.sort(Comparator.comparingLong(index::sequenceOf));
+		for (Event event : removed) {
+			events.remove(event);
+			index.remove(event);
+			names.remove(event);
+		}
+		return removed;
+	}
+
+	@Override
+	public Collection<Event> events() {
+		return Collections.unmodifiableSet(events);
+	}
+
+	@Override
+	public List<Event> named(String name) {
+		return names.named(name);
+	}
+
+	@Override
+	public List<Event> eventsOn(LocalDate date) {
+		return index.eventsOn(date);
+	}
+
+	@Override
+	public Iterator<Map.Entry<Long, List<Event>>> oneTimeDays(long fromDay, long toDay) {
+		return index.oneTimeBetween(fromDay, toDay).entrySet().iterator();
+	}
+
+	@Override
+	public void recurringBetween(long fromDay, long toDay, Consumer<Event> action) {
+		index.recurringBetween(fromDay, toDay, action);
+	}
+
+	@Override
+	public long sequenceOf(Event event) {
+		return index.sequenceOf(event);
+	}
+
+	@Override
+	public int occupancyOf(YearMonth month) {
+		return index.occupancyOf(month);
+	}
+
+	@Override
+	public int[] occupancyOf(YearMonth first, int count) {
+		return index.occupancyOf(first, count);
+	}
+
+	@Override
+	public int size() {
+		return events.size();
+	}
+
+	@Override
+	public long estimatedBytes() {
+		long bytes = 0;
+		for (Event event : events) {
+			bytes += EVENT_BYTES + INDEX_BYTES + 40 + event.getName().length();
+			if (event.isRecurring()) {
+				bytes += RECURRING_BYTES;
+			}
+		}
+		return bytes;
+	}
+
+	@Override
+	public void clear() {
+		events.clear();
+		index.clear();
+		names.clear();
+	}
+}
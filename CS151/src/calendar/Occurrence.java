@@ -0,0 +1,55 @@
+package calendar;
+
+import java.time.LocalDate;
+
+/**
+ * Occurrence is one concrete date on which an event takes place. A one-time
+ * event has a single occurrence, a recurring event has one for each of its
+ * days between its start and end date.
+ *
+ * Programmed by: Nathan Dinh
+ *
+ * Date: 10/17/2026
+ */
+
+public class Occurrence {
+
+	// Declare variables
+	private final LocalDate date;
+	private final Event event;
+
+	/**
+	 * Constructor for an occurrence.
+	 *
+	 * @param date:  the date the event takes place
+	 * @param event: the event
+	 */
+	public Occurrence(LocalDate date, Event event) {
+		this.date = date;
+		this.event = event;
+	}
+
+	/**
+	 * Gets the date the event takes place.
+	 *
+	 * @return the date of the occurrence
+	 */
+	public LocalDate getDate() {
+		return date;
+	}
+
+	/**
+	 * Gets the event that takes place.
+	 *
+	 * @return the event
+	 */
+	public Event getEvent() {
+		return event;
+	}
+
+	@Override
+	public String toString() {
+		return date + " " + event.getTimeInterval().getStartTime() + " - " + event.getTimeInterval().getEndTime()
+				+ " " + event.getName();
+	}
+}
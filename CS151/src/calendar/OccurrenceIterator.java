@@ -0,0 +1,157 @@
+package calendar;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+
+/**
+ * OccurrenceIterator walks the occurrences of a calendar's events between two
+ * dates in chronological order: by date, then start time, then the order the
+ * events were added.
+ *
+ * Nothing is expanded ahead of time. Each recurring event that overlaps the
+ * range has one cursor in a priority queue holding its next occurrence, and
+ * stepping a cursor moves it to the next day in its day mask. One-time events
+ * are read from the index one day at a time and merged with the cursors. Memory
+ * therefore depends on the number of recurring events, not on the length of
+ * the range.
+ *
+ * The iterator reads the index as it goes, so the calendar must not change
+ * while it is in use.
+ *
+ * Programmed by: Nathan Dinh
+ *
+ * Date: 10/17/2026
+ */
+
+class OccurrenceIterator implements Iterator<Occurrence> {
+
+	/**
+	 * The next occurrence of one event.
+	 */
+	private static final class Cursor {
+		final Event event;
+		final int startSecond;
+		final long sequence;
+		long day;
+
+		Cursor(Event event, long day, long sequence) {
+			this.event = event;
+			this.startSecond = event.getTimeInterval().getStartTime().toSecondOfDay();
+			this.sequence = sequence;
+			this.day = day;
+		}
+	}
+
+	// Chronological order of cursors
+	private static final Comparator<Cursor> ORDER = Comparator.<Cursor>comparingLong(c -> c.day)
+			.thenComparingInt(c -> c.startSecond).thenComparingLong(c -> c.sequence);
+
+	private final EventStore index;
+	private final long toDay;
+
+	// Next occurrence of every recurring event that still has one in range
+	private final PriorityQueue<Cursor> recurring;
+
+	// Remaining days with one-time events, and the sorted events of the current
+	// day
+	private final Iterator<Map.Entry<Long, List<Event>>> oneTimeDays;
+	private final List<Cursor> oneTimeToday;
+	private int oneTimePosition;
+
+	/**
+	 * Constructor for an iterator over [from, to].
+	 *
+	 * @param index: index of the calendar's events
+	 * @param from:  first date (inclusive)
+	 * @param to:    last date (inclusive)
+	 */
+	OccurrenceIterator(EventStore index, LocalDate from, LocalDate to) {
+		this.index = index;
+		long fromDay = from.toEpochDay();
+		this.toDay = to.toEpochDay();
+		this.recurring = new PriorityQueue<>(ORDER);
+		this.oneTimeDays = index.oneTimeDays(fromDay, toDay);
+		this.oneTimeToday = new ArrayList<>();
+
+		index.recurringBetween(fromDay, toDay, event -> {
+			long first = nextOccurrence(event, Math.max(fromDay, event.getFirstEpochDay()));
+			if (first <= toDay) {
+				recurring.add(new Cursor(event, first, index.sequenceOf(event)));
+			}
+		});
+	}
+
+	@Override
+	public boolean hasNext() {
+		return oneTimePosition < oneTimeToday.size() || oneTimeDays.hasNext() || !recurring.isEmpty();
+	}
+
+	@Override
+	public Occurrence next() {
+		if (oneTimePosition == oneTimeToday.size()) {
+			loadNextOneTimeDay();
+		}
+
+		Cursor oneTime = oneTimePosition < oneTimeToday.size() ? oneTimeToday.get(oneTimePosition) : null;
+		Cursor repeating = recurring.peek();
+		if (oneTime == null && repeating == null) {
+			throw new NoSuchElementException();
+		}
+
+		if (repeating == null || (oneTime != null && ORDER.compare(oneTime, repeating) < 0)) {
+			oneTimePosition++;
+			return new Occurrence(LocalDate.ofEpochDay(oneTime.day), oneTime.event);
+		}
+
+		// Step the recurring event to its next day and put it back if still in range
+		recurring.poll();
+		Occurrence occurrence = new Occurrence(LocalDate.ofEpochDay(repeating.day), repeating.event);
+		long next = nextOccurrence(repeating.event, repeating.day + 1);
+		if (next <= toDay) {
+			repeating.day = next;
+			recurring.add(repeating);
+		}
+		return occurrence;
+	}
+
+	/**
+	 * Moves to the next day with one-time events and sorts that day by start time.
+	 */
+	private void loadNextOneTimeDay() {
+		oneTimeToday.clear();
+		oneTimePosition = 0;
+		if (oneTimeDays.hasNext()) {
+			Map.Entry<Long, List<Event>> day = oneTimeDays.next();
+			for (Event event : day.getValue()) {
+				oneTimeToday.add(new Cursor(event, day.getKey(), index.sequenceOf(event)));
+			}
+			oneTimeToday.sort(ORDER);
+		}
+	}
+
+	/**
+	 * Finds the first day on or after the given day that the event occurs on.
+	 *
+	 * @param event: a recurring event
+	 * @param day:   the epoch day to start from
+	 * @return the epoch day of the next occurrence, or Long.MAX_VALUE if none
+	 */
+	static long nextOccurrence(Event event, long day) {
+		if ((event.getDayMask() & Event.ALL_DAYS) == 0) {
+			return Long.MAX_VALUE;
+		}
+		// At most a week ahead, since the mask has at least one day
+		for (int i = 0; i < 7 && day <= event.getLastEpochDay(); i++, day++) {
+			if ((event.getDayMask() & Event.dayBit(day)) != 0) {
+				return day;
+			}
+		}
+		return Long.MAX_VALUE;
+	}
+}
@@ -0,0 +1,44 @@
+package calendar;
+
+/**
+ * OperationMetricsMXBean is the JMX view of one instrumented calendar
+ * operation. Times are in microseconds; percentiles are accurate to about an
+ * eighth of their value.
+ *
+ * Programmed by: Nathan Dinh
+ *
+ * Date: 10/17/2026
+ */
+
+public interface OperationMetricsMXBean {
+
+	long getCount();
+
+	double getMeanMicros();
+
+	double getP50Micros();
+
+	double getP90Micros();
+
+	double getP99Micros();
+
+	double getMaxMicros();
+
+	/**
+	 * Events the calls touched: returned by a lookup, stepped through by an
+	 * occurrence or free slot search, busy days walked by the month view, or
+	 * read or written by a load or save.
+	 */
+	long getEventsScanned();
+
+	double getEventsPerCall();
+
+	/**
+	 * Bytes read or written by loads and saves.
+	 */
+	long getBytes();
+
+	double getBytesPerSecond();
+
+	double getRecordsPerSecond();
+}
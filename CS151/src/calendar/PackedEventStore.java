@@ -0,0 +1,721 @@
+package calendar;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.AbstractCollection;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+
+/**
+ * PackedEventStore keeps the calendar's events in primitive columns instead of
+ * Event objects: one row per event with int epoch days, short minutes of the
+ * day, a byte day mask and a name id into a table of interned names, the same
+ * fields an EventSnapshot record has. The rows of a name are chained through
+ * a column, and names are found ignoring case through an open-addressing table
+ * of name ids. A row takes about 60 bytes with its index entries, plus the
+ * name the first time it is used, where an Event with its TimeInterval, dates,
+ * times and index entries takes about 300.
+ *
+ * Lookups hand out views: new Event objects built from a row when asked for
+ * and dropped by the caller after use. A view is a copy, so changing it does
+ * not change the store. Two views of the same row are equal, and removing a
+ * view removes its row; any other event is removed by finding a row with the
+ * same values.
+ *
+ * As in snapshots, times are kept to the minute and recurring days come back in
+ * Monday-first order. Removed rows are skipped until they outnumber the live
+ * ones, then the columns are compacted; views taken before a compaction are
+ * then matched by their values.
+ *
+ * Programmed by: Nathan Dinh
+ *
+ * Date: 10/17/2026
+ */
+
+class PackedEventStore implements EventStore {
+
+	/**
+	 * An event built from one row of the store.
+	 */
+	static final class View extends Event {
+		private final PackedEventStore store;
+		private final int generation;
+		private final int row;
+
+		View(PackedEventStore store, int row, String name, TimeInterval timeInterval) {
+			super(name, timeInterval);
+			this.store = store;
+			this.generation = store.generation;
+			this.row = row;
+		}
+
+		View(PackedEventStore store, int row, String name, TimeInterval timeInterval, DayOfWeek[] recurringDays,
+				LocalDate startDate, LocalDate endDate) {
+			super(name, timeInterval, recurringDays, startDate, endDate);
+			this.store = store;
+			this.generation = store.generation;
+			this.row = row;
+		}
+
+		@Override
+		public boolean equals(Object other) {
+			if (!(other instanceof View)) {
+				return false;
+			}
+			View view = (View) other;
+			return view.store == store && view.generation == generation && view.row == row;
+		}
+
+		@Override
+		public int hashCode() {
+			return row;
+		}
+	}
+
+	/**
+	 * A growable list of row numbers.
+	 */
+	private static final class IntList {
+		private int[] values = new int[1];
+		private int size;
+
+		void add(int value) {
+			if (size == values.length) {
+				values = Arrays.copyOf(values, size * 2);
+			}
+			values[size++] = value;
+		}
+
+		void removeValue(int value) {
+			for (int i = 0; i < size; i++) {
+				if (values[i] == value) {
+					System.arraycopy(values, i + 1, values, i, size - i - 1);
+					size--;
+					return;
+				}
+			}
+		}
+
+		int get(int i) {
+			return values[i];
+		}
+
+		int size() {
+			return size;
+		}
+
+		void sort() {
+			Arrays.sort(values, 0, size);
+		}
+	}
+
+	private static final int FLAG_RECURRING = 1;
+	private static final int FLAG_REMOVED = 2;
+
+	// Removed rows are compacted away once there are at least this many and they
+	// outnumber the live rows
+	private static final int COMPACT_MIN_REMOVED = 1024;
+
+	// Rows in use (live and removed) and live rows
+	private int rows;
+	private int live;
+
+	// Columns, one entry per row in the order the events were added
+	private int[] nameIds;
+	private int[] startDays;
+	private int[] endDays;
+	private short[] startMinutes;
+	private short[] endMinutes;
+	private int[] recurringStarts;
+	private int[] recurringEnds;
+	private byte[] dayMasks;
+	private byte[] flags;
+
+	// Next row with the same name, or -1
+	private int[] nextRowOfName;
+
+	// Interned names by id with the first and last row of each, and a table of
+	// name id + 1 by case-folded hash (0 for an empty slot)
+	private int nameCount;
+	private String[] nameTable;
+	private int[] firstRowOfName;
+	private int[] lastRowOfName;
+	private int[] nameSlots;
+
+	// One-time rows by epoch day, recurring rows by date span
+	private final TreeMap<Long, IntList> oneTimeByDay;
+	private final IntervalTree<Integer> recurring;
+
+	// Changes whenever rows are renumbered, so older views are not mistaken for
+	// the rows now at their numbers
+	private int generation;
+
+	/**
+	 * Default constructor with an empty store.
+	 */
+	PackedEventStore() {
+		this.nameTable = new String[16];
+		this.firstRowOfName = new int[16];
+		this.lastRowOfName = new int[16];
+		this.nameSlots = new int[32];
+		this.oneTimeByDay = new TreeMap<>();
+		this.recurring = new IntervalTree<>();
+		this.nameIds = new int[16];
+		this.startDays = new int[16];
+		this.endDays = new int[16];
+		this.startMinutes = new short[16];
+		this.endMinutes = new short[16];
+		this.recurringStarts = new int[16];
+		this.recurringEnds = new int[16];
+		this.dayMasks = new byte[16];
+		this.flags = new byte[16];
+		this.nextRowOfName = new int[16];
+	}
+
+	@Override
+	public void add(Event event) {
+		if (rows == nameIds.length) {
+			resize(rows + (rows >> 1));
+		}
+		int row = rows++;
+		TimeInterval timeInterval = event.getTimeInterval();
+		nameIds[row] = intern(event.getName());
+		startDays[row] = (int) timeInterval.getStartDate().toEpochDay();
+		endDays[row] = (int) timeInterval.getEndDate().toEpochDay();
+		startMinutes[row] = (short) EventSnapshot.minuteOfDay(timeInterval.getStartTime());
+		endMinutes[row] = (short) EventSnapshot.minuteOfDay(timeInterval.getEndTime());
+		if (event.isRecurring()) {
+			recurringStarts[row] = (int) event.getStartDate().toEpochDay();
+			recurringEnds[row] = (int) event.getEndDate().toEpochDay();
+			dayMasks[row] = (byte) event.getDayMask();
+			flags[row] = FLAG_RECURRING;
+		} else {
+			recurringStarts[row] = 0;
+			recurringEnds[row] = 0;
+			dayMasks[row] = 0;
+			flags[row] = 0;
+		}
+		live++;
+		indexRow(row);
+	}
+
+	@Override
+	public void addAll(EventSnapshot snapshot) {
+		int count = snapshot.size();
+		if (rows + count > nameIds.length) {
+			resize(Math.max(rows + count, rows + (rows >> 1)));
+		}
+
+		// The records have the same fields as a row, so copy them without building
+		// Events; each snapshot name is interned once
+		int[] internedIds = new int[snapshot.nameCount()];
+		Arrays.fill(internedIds, -1);
+		for (int i = 0; i < count; i++) {
+			int row = rows++;
+			int nameId = snapshot.nameIdAt(i);
+			if (internedIds[nameId] < 0) {
+				internedIds[nameId] = intern(snapshot.nameOf(nameId));
+			}
+			nameIds[row] = internedIds[nameId];
+			startDays[row] = snapshot.startDayAt(i);
+			endDays[row] = snapshot.endDayAt(i);
+			startMinutes[row] = snapshot.startMinuteAt(i);
+			endMinutes[row] = snapshot.endMinuteAt(i);
+			if (snapshot.isRecurringAt(i)) {
+				recurringStarts[row] = snapshot.recurringStartAt(i);
+				recurringEnds[row] = snapshot.recurringEndAt(i);
+				dayMasks[row] = snapshot.dayMaskAt(i);
+				flags[row] = FLAG_RECURRING;
+			} else {
+				recurringStarts[row] = 0;
+				recurringEnds[row] = 0;
+				dayMasks[row] = 0;
+				flags[row] = 0;
+			}
+			live++;
+			indexRow(row);
+		}
+	}
+
+	@Override
+	public boolean remove(Event event) {
+		int row = rowOf(event, null);
+		if (row < 0) {
+			return false;
+		}
+		removeRow(row);
+		compactIfSparse();
+		return true;
+	}
+
+	@Override
+	public List<Event> removeAll(Collection<Event> toRemove) {
+		BitSet marked = new BitSet();
+		for (Event event : toRemove) {
+			int row = rowOf(event, marked);
+			if (row >= 0) {
+				marked.set(row);
+			}
+		}
+
+		// Take the views before the rows go, in row order like the object store
+		List<Event> removed = new ArrayList<>(marked.cardinality());
+		for (int row = marked.nextSetBit(0); row >= 0; row = marked.nextSetBit(row + 1)) {
+			removed.add(viewOf(row));
+			removeRow(row);
+		}
+		compactIfSparse();
+		return removed;
+	}
+
+	@Override
+	public Collection<Event> events() {
+		return new AbstractCollection<Event>() {
+			@Override
+			public Iterator<Event> iterator() {
+				return new Iterator<Event>() {
+					private int next = nextLiveRow(0);
+
+					@Override
+					public boolean hasNext() {
+						return next < rows;
+					}
+
+					@Override
+					public Event next() {
+						if (!hasNext()) {
+							throw new NoSuchElementException();
+						}
+						Event event = viewOf(next);
+						next = nextLiveRow(next + 1);
+						return event;
+					}
+				};
+			}
+
+			@Override
+			public int size() {
+				return live;
+			}
+		};
+	}
+
+	@Override
+	public List<Event> named(String name) {
+		// Names equal ignoring case share a slot chain; merge their rows back into
+		// insertion order
+		IntList found = new IntList();
+		int names = 0;
+		int mask = nameSlots.length - 1;
+		for (int slot = foldedHash(name) & mask; nameSlots[slot] != 0; slot = (slot + 1) & mask) {
+			int id = nameSlots[slot] - 1;
+			if (nameTable[id].equalsIgnoreCase(name) && firstRowOfName[id] >= 0) {
+				names++;
+				for (int row = firstRowOfName[id]; row >= 0; row = nextRowOfName[row]) {
+					found.add(row);
+				}
+			}
+		}
+		if (names > 1) {
+			found.sort();
+		}
+		return viewsOf(found);
+	}
+
+	@Override
+	public List<Event> eventsOn(LocalDate date) {
+		long day = date.toEpochDay();
+		IntList found = new IntList();
+		IntList sameDay = oneTimeByDay.get(day);
+		if (sameDay != null) {
+			for (int i = 0; i < sameDay.size(); i++) {
+				found.add(sameDay.get(i));
+			}
+		}
+
+		int oneTimeCount = found.size();
+		int dayBit = Event.dayBit(day);
+		recurring.stab(day, row -> {
+			if ((dayMasks[row] & dayBit) != 0) {
+				found.add(row);
+			}
+		});
+
+		// Rows are numbered in insertion order, so sorting them restores it
+		int recurringCount = found.size() - oneTimeCount;
+		if (recurringCount > 1 || (recurringCount == 1 && oneTimeCount > 0)) {
+			found.sort();
+		}
+		return viewsOf(found);
+	}
+
+	@Override
+	public Iterator<Map.Entry<Long, List<Event>>> oneTimeDays(long fromDay, long toDay) {
+		Iterator<Map.Entry<Long, IntList>> days = oneTimeByDay.subMap(fromDay, true, toDay, true).entrySet()
+				.iterator();
+		return new Iterator<Map.Entry<Long, List<Event>>>() {
+			@Override
+			public boolean hasNext() {
+				return days.hasNext();
+			}
+
+			@Override
+			public Map.Entry<Long, List<Event>> next() {
+				Map.Entry<Long, IntList> day = days.next();
+				return Map.entry(day.getKey(), viewsOf(day.getValue()));
+			}
+		};
+	}
+
+	@Override
+	public void recurringBetween(long fromDay, long toDay, Consumer<Event> action) {
+		recurring.overlapping(fromDay, toDay, row -> action.accept(viewOf(row)));
+	}
+
+	@Override
+	public long sequenceOf(Event event) {
+		int row = rowOf(event, null);
+		if (row < 0) {
+			throw new IllegalArgumentException("Event is not in the store: " + event.getName());
+		}
+		return row;
+	}
+
+	@Override
+	public int occupancyOf(YearMonth month) {
+		return occupancyOf(month, 1)[0];
+	}
+
+	@Override
+	public int[] occupancyOf(YearMonth first, int count) {
+		if (count < 1) {
+			throw new IllegalArgumentException("The month count must be at least 1, was " + count);
+		}
+		long firstDay = first.atDay(1).toEpochDay();
+		long lastDay = first.plusMonths(count - 1).atEndOfMonth().toEpochDay();
+		long[] busy = new long[(int) ((lastDay - firstDay) >> 6) + 1];
+
+		for (long day : oneTimeByDay.subMap(firstDay, true, lastDay, true).keySet()) {
+			int offset = (int) (day - firstDay);
+			busy[offset >> 6] |= 1L << offset;
+		}
+		recurring.overlapping(firstDay, lastDay, row -> EventIndex.markDays(busy, firstDay,
+				Math.max(recurringStarts[row], firstDay), Math.min(recurringEnds[row], lastDay), dayMasks[row]));
+		return EventIndex.splitMonths(busy, first, count);
+	}
+
+	@Override
+	public int size() {
+		return live;
+	}
+
+	@Override
+	public long estimatedBytes() {
+		// Row columns: six int, two short and two byte arrays
+		long bytes = 10 * 16 + (long) nameIds.length * (6 * 4 + 2 * 2 + 2);
+
+		// Name table and hash slots, and the names themselves
+		bytes += 4 * 16 + (long) nameTable.length * 3 * 4 + (long) nameSlots.length * 4;
+		for (int id = 0; id < nameCount; id++) {
+			bytes += 40 + nameTable[id].length();
+		}
+
+		// A tree map entry, key and row list per day, and a node and key per
+		// recurring event
+		for (IntList rowsOfDay : oneTimeByDay.values()) {
+			bytes += 40 + 16 + 24 + 16 + 4L * rowsOfDay.values.length;
+		}
+		return bytes + 88L * recurring.size();
+	}
+
+	@Override
+	public void clear() {
+		rows = 0;
+		live = 0;
+		clearNames();
+		oneTimeByDay.clear();
+		recurring.clear();
+		generation++;
+		resize(16);
+	}
+
+	/**
+	 * Builds the view of a row.
+	 */
+	private Event viewOf(int row) {
+		String name = nameTable[nameIds[row]];
+		TimeInterval timeInterval = new TimeInterval(LocalDate.ofEpochDay(startDays[row]),
+				EventFileReader.timeOf(startMinutes[row]), LocalDate.ofEpochDay(endDays[row]),
+				EventFileReader.timeOf(endMinutes[row]));
+		if ((flags[row] & FLAG_RECURRING) == 0) {
+			return new View(this, row, name, timeInterval);
+		}
+		return new View(this, row, name, timeInterval, EventSnapshot.daysOf(dayMasks[row]),
+				LocalDate.ofEpochDay(recurringStarts[row]), LocalDate.ofEpochDay(recurringEnds[row]));
+	}
+
+	/**
+	 * Builds the views of rows, in the order given.
+	 */
+	private List<Event> viewsOf(IntList rowList) {
+		List<Event> views = new ArrayList<>(rowList.size());
+		for (int i = 0; i < rowList.size(); i++) {
+			views.add(viewOf(rowList.get(i)));
+		}
+		return views;
+	}
+
+	/**
+	 * Finds the live row of an event: the row of a current view, or else the
+	 * first row with the same values that is not in skip.
+	 *
+	 * @param event: the event to find
+	 * @param skip:  rows already taken, or null
+	 * @return the row, or -1 if there is none
+	 */
+	private int rowOf(Event event, BitSet skip) {
+		if (event instanceof View) {
+			View view = (View) event;
+			if (view.store == this && view.generation == generation) {
+				return (flags[view.row] & FLAG_REMOVED) == 0 ? view.row : -1;
+			}
+		}
+
+		// One-time events can be found by date, recurring ones by name
+		if (event.isRecurring()) {
+			int id = findName(event.getName());
+			for (int row = id < 0 ? -1 : firstRowOfName[id]; row >= 0; row = nextRowOfName[row]) {
+				if ((skip == null || !skip.get(row)) && matches(row, event)) {
+					return row;
+				}
+			}
+			return -1;
+		}
+		IntList candidates = oneTimeByDay.get(event.getTimeInterval().getStartDate().toEpochDay());
+		if (candidates != null) {
+			for (int i = 0; i < candidates.size(); i++) {
+				int row = candidates.get(i);
+				if ((skip == null || !skip.get(row)) && matches(row, event)) {
+					return row;
+				}
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Checks if a row holds the same values as an event, to the minute.
+	 */
+	private boolean matches(int row, Event event) {
+		TimeInterval timeInterval = event.getTimeInterval();
+		boolean recurringRow = (flags[row] & FLAG_RECURRING) != 0;
+		if (recurringRow != event.isRecurring() || !nameTable[nameIds[row]].equals(event.getName())
+				|| startDays[row] != timeInterval.getStartDate().toEpochDay()
+				|| endDays[row] != timeInterval.getEndDate().toEpochDay()
+				|| startMinutes[row] != EventSnapshot.minuteOfDay(timeInterval.getStartTime())
+				|| endMinutes[row] != EventSnapshot.minuteOfDay(timeInterval.getEndTime())) {
+			return false;
+		}
+		return !recurringRow || (recurringStarts[row] == event.getStartDate().toEpochDay()
+				&& recurringEnds[row] == event.getEndDate().toEpochDay() && dayMasks[row] == event.getDayMask());
+	}
+
+	/**
+	 * Gets the id of a name, adding it to the name table the first time.
+	 */
+	private int intern(String name) {
+		int mask = nameSlots.length - 1;
+		int slot = foldedHash(name) & mask;
+		for (; nameSlots[slot] != 0; slot = (slot + 1) & mask) {
+			int id = nameSlots[slot] - 1;
+			if (nameTable[id].equals(name)) {
+				return id;
+			}
+		}
+
+		if (nameCount == nameTable.length) {
+			int capacity = nameCount * 2;
+			nameTable = Arrays.copyOf(nameTable, capacity);
+			firstRowOfName = Arrays.copyOf(firstRowOfName, capacity);
+			lastRowOfName = Arrays.copyOf(lastRowOfName, capacity);
+		}
+		int id = nameCount++;
+		nameTable[id] = name;
+		firstRowOfName[id] = -1;
+		lastRowOfName[id] = -1;
+		nameSlots[slot] = id + 1;
+
+		// Keep the table at most half full so probe chains stay short
+		if (nameCount * 2 > nameSlots.length) {
+			nameSlots = new int[nameSlots.length * 2];
+			for (int i = 0; i < nameCount; i++) {
+				int free = foldedHash(nameTable[i]) & (nameSlots.length - 1);
+				while (nameSlots[free] != 0) {
+					free = (free + 1) & (nameSlots.length - 1);
+				}
+				nameSlots[free] = i + 1;
+			}
+		}
+		return id;
+	}
+
+	/**
+	 * Gets the id of a name already in the name table.
+	 *
+	 * @return the id, or -1 if the name has never been added
+	 */
+	private int findName(String name) {
+		int mask = nameSlots.length - 1;
+		for (int slot = foldedHash(name) & mask; nameSlots[slot] != 0; slot = (slot + 1) & mask) {
+			int id = nameSlots[slot] - 1;
+			if (nameTable[id].equals(name)) {
+				return id;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Empties the name table.
+	 */
+	private void clearNames() {
+		Arrays.fill(nameTable, 0, nameCount, null);
+		Arrays.fill(nameSlots, 0);
+		nameCount = 0;
+	}
+
+	/**
+	 * Hashes a name so that names equal ignoring case hash the same, folding each
+	 * character the way NameIndex.keyOf does without building the folded string.
+	 */
+	private static int foldedHash(String name) {
+		int hash = 0;
+		for (int i = 0; i < name.length(); i++) {
+			hash = 31 * hash + Character.toLowerCase(Character.toUpperCase(name.charAt(i)));
+		}
+		return hash ^ (hash >>> 16);
+	}
+
+	/**
+	 * Adds a row to the name and date indexes.
+	 */
+	private void indexRow(int row) {
+		int id = nameIds[row];
+		nextRowOfName[row] = -1;
+		if (lastRowOfName[id] < 0) {
+			firstRowOfName[id] = row;
+		} else {
+			nextRowOfName[lastRowOfName[id]] = row;
+		}
+		lastRowOfName[id] = row;
+		if ((flags[row] & FLAG_RECURRING) != 0) {
+			recurring.insert(recurringStarts[row], recurringEnds[row], row, row);
+		} else {
+			oneTimeByDay.computeIfAbsent((long) startDays[row], day -> new IntList()).add(row);
+		}
+	}
+
+	/**
+	 * Marks a row removed and takes it out of the indexes.
+	 */
+	private void removeRow(int row) {
+		flags[row] |= FLAG_REMOVED;
+		live--;
+
+		// Unlink the row from its name's chain
+		int id = nameIds[row];
+		int previous = -1;
+		for (int at = firstRowOfName[id]; at != row; at = nextRowOfName[at]) {
+			previous = at;
+		}
+		if (previous < 0) {
+			firstRowOfName[id] = nextRowOfName[row];
+		} else {
+			nextRowOfName[previous] = nextRowOfName[row];
+		}
+		if (lastRowOfName[id] == row) {
+			lastRowOfName[id] = previous;
+		}
+		if ((flags[row] & FLAG_RECURRING) != 0) {
+			recurring.remove(recurringStarts[row], row);
+		} else {
+			IntList sameDay = oneTimeByDay.get((long) startDays[row]);
+			sameDay.removeValue(row);
+			if (sameDay.size() == 0) {
+				oneTimeByDay.remove((long) startDays[row]);
+			}
+		}
+	}
+
+	/**
+	 * Gets the first live row at or after a row, or rows if there is none.
+	 */
+	private int nextLiveRow(int row) {
+		while (row < rows && (flags[row] & FLAG_REMOVED) != 0) {
+			row++;
+		}
+		return row;
+	}
+
+	/**
+	 * Moves the live rows down over the removed ones, in order, once the removed
+	 * rows outnumber them. Names no longer used are dropped from the name table,
+	 * and the indexes are rebuilt for the new row numbers.
+	 */
+	private void compactIfSparse() {
+		int removed = rows - live;
+		if (removed < COMPACT_MIN_REMOVED || removed < live) {
+			return;
+		}
+		String[] oldNames = Arrays.copyOf(nameTable, nameCount);
+		clearNames();
+		oneTimeByDay.clear();
+		recurring.clear();
+
+		int kept = 0;
+		for (int row = 0; row < rows; row++) {
+			if ((flags[row] & FLAG_REMOVED) != 0) {
+				continue;
+			}
+			nameIds[kept] = intern(oldNames[nameIds[row]]);
+			startDays[kept] = startDays[row];
+			endDays[kept] = endDays[row];
+			startMinutes[kept] = startMinutes[row];
+			endMinutes[kept] = endMinutes[row];
+			recurringStarts[kept] = recurringStarts[row];
+			recurringEnds[kept] = recurringEnds[row];
+			dayMasks[kept] = dayMasks[row];
+			flags[kept] = flags[row];
+			indexRow(kept);
+			kept++;
+		}
+		rows = kept;
+		generation++;
+		resize(Math.max(16, rows + (rows >> 1)));
+	}
+
+	/**
+	 * Sets the capacity of the columns, keeping the rows in use.
+	 */
+	private void resize(int capacity) {
+		nameIds = Arrays.copyOf(nameIds, capacity);
+		startDays = Arrays.copyOf(startDays, capacity);
+		endDays = Arrays.copyOf(endDays, capacity);
+		startMinutes = Arrays.copyOf(startMinutes, capacity);
+		endMinutes = Arrays.copyOf(endMinutes, capacity);
+		recurringStarts = Arrays.copyOf(recurringStarts, capacity);
+		recurringEnds = Arrays.copyOf(recurringEnds, capacity);
+		dayMasks = Arrays.copyOf(dayMasks, capacity);
+		flags = Arrays.copyOf(flags, capacity);
+		nextRowOfName = Arrays.copyOf(nextRowOfName, capacity);
+	}
+}
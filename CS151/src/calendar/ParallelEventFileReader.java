@@ -0,0 +1,210 @@
+package calendar;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+/**
+ * ParallelEventFileReader loads an event file on several cores. The file is
+ * memory-mapped and cut into chunks at line breaks; each chunk's lines are
+ * counted in parallel so every chunk can be moved to start on a name line
+ * (records are always two lines), and then the chunks are parsed in parallel
+ * with EventFileReader. Events are handed out in file order, so the result is
+ * the same as reading the file sequentially.
+ *
+ * Programmed by: Nathan Dinh
+ *
+ * Date: 10/17/2026
+ */
+
+class ParallelEventFileReader {
+
+	// Files smaller than this are read sequentially
+	private static final long MIN_PARALLEL_SIZE = 1024 * 1024;
+
+	// Chunks per worker thread, so uneven chunks still balance out
+	private static final int CHUNKS_PER_THREAD = 4;
+
+	// Pool that runs the chunk tasks
+	private final ForkJoinPool pool;
+
+	/**
+	 * Constructor for a reader using the given pool.
+	 *
+	 * @param pool: the pool to parse chunks on
+	 */
+	ParallelEventFileReader(ForkJoinPool pool) {
+		this.pool = pool;
+	}
+
+	/**
+	 * The events parsed from one chunk, and the error that stopped it if any.
+	 */
+	private static final class ChunkResult {
+		final List<Event> events = new ArrayList<>();
+		RuntimeException error;
+	}
+
+	/**
+	 * Reads every event in a file and passes each one to the consumer in file
+	 * order. If a record is malformed, the events before it are still passed on
+	 * and then the error is thrown, like the sequential reader does.
+	 *
+	 * @param path: the file to read
+	 * @param sink: receives each parsed event
+	 * @return the number of events read
+	 * @throws IOException if the file cannot be read
+	 */
+	long read(Path path, Consumer<Event> sink) throws IOException {
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			long size = channel.size();
+			if (size < MIN_PARALLEL_SIZE || size > Integer.MAX_VALUE || pool.getParallelism() < 2) {
+				return new EventFileReader().read(path, sink);
+			}
+
+			MappedByteBuffer file = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+			int[] bounds = alignToRecords(file, chunkBounds(file, pool.getParallelism() * CHUNKS_PER_THREAD));
+
+			List<Callable<ChunkResult>> tasks = new ArrayList<>();
+			for (int i = 0; i + 1 < bounds.length; i++) {
+				int from = bounds[i];
+				int to = bounds[i + 1];
+				boolean last = i + 2 == bounds.length;
+				tasks.add(() -> parseChunk(file, from, to, last));
+			}
+
+			// Merge the chunks in order, stopping at the first malformed record
+			long records = 0;
+			for (Future<ChunkResult> future : pool.invokeAll(tasks)) {
+				ChunkResult chunk = join(future);
+				for (Event event : chunk.events) {
+					sink.accept(event);
+				}
+				records += chunk.events.size();
+				if (chunk.error != null) {
+					throw chunk.error;
+				}
+			}
+			return records;
+		}
+	}
+
+	/**
+	 * Cuts the file into roughly equal chunks that each start at the beginning of a
+	 * line.
+	 *
+	 * @return the chunk boundaries, starting with 0 and ending with the file size
+	 */
+	private static int[] chunkBounds(MappedByteBuffer file, int chunks) {
+		int size = file.limit();
+		List<Integer> bounds = new ArrayList<>();
+		bounds.add(0);
+		for (int i = 1; i < chunks; i++) {
+			int bound = nextLineStart(file, Math.max((int) ((long) size * i / chunks), bounds.get(bounds.size() - 1)));
+			if (bound > bounds.get(bounds.size() - 1) && bound < size) {
+				bounds.add(bound);
+			}
+		}
+		bounds.add(size);
+		return bounds.stream().mapToInt(Integer::intValue).toArray();
+	}
+
+	/**
+	 * Moves chunk boundaries so that every chunk starts on a name line. The line
+	 * breaks of all chunks are counted in parallel; a chunk that would start on an
+	 * odd line (a details line) starts one line later instead.
+	 */
+	private int[] alignToRecords(MappedByteBuffer file, int[] bounds) throws IOException {
+		List<Callable<Long>> counts = new ArrayList<>();
+		for (int i = 0; i + 1 < bounds.length; i++) {
+			int from = bounds[i];
+			int to = bounds[i + 1];
+			counts.add(() -> countLineBreaks(file, from, to));
+		}
+
+		// Index of the line each original boundary starts on; moving a boundary
+		// only hands one line to the previous chunk, so later indexes stay the same
+		long line = 0;
+		List<Future<Long>> futures = pool.invokeAll(counts);
+		for (int i = 1; i < bounds.length - 1; i++) {
+			line += join(futures.get(i - 1));
+			if (line % 2 != 0) {
+				bounds[i] = nextLineStart(file, bounds[i] + 1);
+			}
+		}
+		return bounds;
+	}
+
+	/**
+	 * Parses the lines in file[from, to) with a private EventFileReader.
+	 */
+	private static ChunkResult parseChunk(MappedByteBuffer file, int from, int to, boolean last) {
+		byte[] bytes = new byte[to - from];
+		file.get(from, bytes);
+
+		ChunkResult result = new ChunkResult();
+		EventFileReader reader = new EventFileReader();
+		try {
+			reader.parseLines(bytes, 0, bytes.length, true, result.events::add);
+			if (last) {
+				reader.finish();
+			}
+		} catch (RuntimeException e) {
+			result.error = e;
+		}
+		return result;
+	}
+
+	/**
+	 * Counts the line breaks in file[from, to), treating "\r\n" as one break.
+	 */
+	private static long countLineBreaks(MappedByteBuffer file, int from, int to) {
+		long count = 0;
+		for (int i = from; i < to; i++) {
+			byte b = file.get(i);
+			if (b == '\n' || (b == '\r' && (i + 1 == file.limit() || file.get(i + 1) != '\n'))) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Finds the first position at or after pos where a line begins.
+	 */
+	private static int nextLineStart(MappedByteBuffer file, int pos) {
+		int size = file.limit();
+		while (pos < size && !isLineStart(file, pos)) {
+			pos++;
+		}
+		return pos;
+	}
+
+	private static boolean isLineStart(MappedByteBuffer file, int pos) {
+		if (pos == 0) {
+			return true;
+		}
+		byte previous = file.get(pos - 1);
+		return previous == '\n' || (previous == '\r' && file.get(pos) != '\n');
+	}
+
+	private static <T> T join(Future<T> future) throws IOException {
+		try {
+			return future.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException("Interrupted while loading events", e);
+		} catch (ExecutionException e) {
+			throw new IOException("Failed to load events", e.getCause());
+		}
+	}
+}
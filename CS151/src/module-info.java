@@ -6,4 +6,10 @@
  *
  */
 module CS151 {
+	// Only JMX needs the package, to read the calendar's MBeans
+	exports calendar to java.management;
+
+	requires transitive java.management;
+	requires java.net.http;
+	requires jdk.httpserver;
 }
\ No newline at end of file